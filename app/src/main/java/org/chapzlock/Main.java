@@ -3,6 +3,7 @@ package org.chapzlock;
 import org.chapzlock.app.layer.GameWorldLayer;
 import org.chapzlock.core.application.Application;
 import org.chapzlock.core.application.ApplicationSpecification;
+import org.chapzlock.core.event.DispatchMode;
 import org.chapzlock.core.window.WindowSpecification;
 
 public class Main {
@@ -11,6 +12,7 @@ public class Main {
         var appSpec = ApplicationSpecification.builder()
             .windowSpec(WindowSpecification.builder()
                 .build())
+            .eventDispatchMode(DispatchMode.QUEUED)
             .build();
         Application application = Application.create(appSpec);
         application.pushLayer(new GameWorldLayer());
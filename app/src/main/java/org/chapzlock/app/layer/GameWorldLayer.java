@@ -8,7 +8,7 @@ import org.chapzlock.app.systems.PlayerInputSystem;
 import org.chapzlock.app.systems.PlayerMovementSystem;
 import org.chapzlock.app.tags.PlayerTag;
 import org.chapzlock.core.application.Layer;
-import org.chapzlock.core.application.System;
+import org.chapzlock.core.application.World;
 import org.chapzlock.core.component.Camera;
 import org.chapzlock.core.component.Color;
 import org.chapzlock.core.component.Material;
@@ -32,6 +32,7 @@ import org.chapzlock.core.physics.CollisionShapeFactory;
 import org.chapzlock.core.physics.PhysicsSpecs;
 import org.chapzlock.core.physics.PhysicsSystemSpecs;
 import org.chapzlock.core.registry.ComponentRegistry;
+import org.chapzlock.core.system.HierarchySystem;
 import org.chapzlock.core.system.MaterialSystem;
 import org.chapzlock.core.system.MeshSystem;
 import org.chapzlock.core.system.PhysicsSystem;
@@ -41,38 +42,32 @@ import org.joml.Vector3f;
 
 public class GameWorldLayer implements Layer {
 
-    private final ComponentRegistry registry = ComponentRegistry.instance();
+    private final World world = World.defaultWorld();
+    private final ComponentRegistry registry = world.getRegistry();
     private final MeshSystem meshSystem = MeshSystem.instance();
     private final TextureSystem textureSystem = TextureSystem.instance();
     private final MaterialSystem materialSystem = MaterialSystem.instance();
 
-    private final List<System> systems = List.of(
-        new RenderSystem(),
-        new PlayerMovementSystem(),
-        new PlayerInputSystem(),
-        new PhysicsSystem(PhysicsSystemSpecs.builder()
-            .isDebugEnabled(true)
-            .build()),
-        new PlayerCameraFollowSystem()
-    );
-
     @Override
     public void onInit() {
+        world.addSystem(RenderSystem::new)
+            .addSystem(PlayerMovementSystem::new)
+            .addSystem(PlayerInputSystem::new)
+            .addSystem(new PhysicsSystem(registry, PhysicsSystemSpecs.builder()
+                .isDebugEnabled(true)
+                .build()))
+            .addSystem(PlayerCameraFollowSystem::new)
+            .addSystem(HierarchySystem::new);
         createEntities();
-        systems.forEach(System::onInit);
+        world.init();
     }
 
     private void createEntities() {
         createPlayer();
 
-        int light = Entity.create();
-        registry.addComponent(light, new PointLight(new Vector3f(-5, 300, -10), Color.WHITE));
-
-        int camera = Entity.create();
-        registry.addComponent(camera, new Camera(new Vector3f(0, 5, 10)));
-
-        int sky = Entity.create();
-        registry.addComponent(sky, new Sky());
+        registry.setResource(new PointLight(new Vector3f(-5, 300, -10), Color.WHITE));
+        registry.setResource(new Camera(new Vector3f(0, 5, 10)));
+        registry.setResource(new Sky());
 
         createTerrain();
     }
@@ -140,16 +135,16 @@ public class GameWorldLayer implements Layer {
 
     @Override
     public void onUpdate(float deltaTime) {
-        systems.forEach(s -> s.onUpdate(deltaTime));
+        world.update(deltaTime);
     }
 
     @Override
     public void onRender(float deltaTime) {
-        systems.forEach(s -> s.onRender(deltaTime));
+        world.render(deltaTime);
     }
 
     @Override
     public void onDestroy() {
-        systems.forEach(System::onDestroy);
+        world.destroy();
     }
 }
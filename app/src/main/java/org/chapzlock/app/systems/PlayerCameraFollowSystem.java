@@ -1,18 +1,21 @@
 package org.chapzlock.app.systems;
 
-import java.util.List;
-
 import org.chapzlock.app.tags.PlayerTag;
+import org.chapzlock.core.application.FrameArena;
 import org.chapzlock.core.application.System;
+import org.chapzlock.core.application.SystemAccess;
 import org.chapzlock.core.component.Camera;
 import org.chapzlock.core.component.Transform;
 import org.chapzlock.core.entity.EntityView;
 import org.chapzlock.core.registry.ComponentRegistry;
+import org.chapzlock.core.registry.Query;
 import org.joml.Vector3f;
+import org.joml.Vector3fc;
 
 public class PlayerCameraFollowSystem implements System {
 
-    private final ComponentRegistry registry = ComponentRegistry.instance();
+    private final ComponentRegistry registry;
+    private final Query players;
 
     private final float followDistance = 12f;   // behind the car
     private final float height = 4.0f;          // above the car
@@ -20,41 +23,50 @@ public class PlayerCameraFollowSystem implements System {
     private final float positionDamping = 6f;   // larger = snappier
     private final float rotationDamping = 8f;   // larger = snappier
 
+    public PlayerCameraFollowSystem() {
+        this(ComponentRegistry.instance());
+    }
+
+    public PlayerCameraFollowSystem(ComponentRegistry registry) {
+        this.registry = registry;
+        this.players = registry.query(PlayerTag.class, Transform.class);
+    }
+
+    @Override
+    public SystemAccess access() {
+        return SystemAccess.builder()
+            .read(PlayerTag.class)
+            .read(Transform.class)
+            .write(Camera.class)
+            .build();
+    }
+
     @Override
     public void onUpdate(float deltaTime) {
-        List<EntityView> cameras = registry.view(Camera.class);
-        List<EntityView> players = registry.view(PlayerTag.class, Transform.class);
+        Camera camT = registry.resource(Camera.class);
+        EntityView playerEntity = players.first();
 
-        if (cameras.isEmpty() || players.isEmpty()) {
+        if (camT == null || playerEntity == null) {
             return;
         }
 
-        EntityView camEntity = cameras.get(0);
-        EntityView playerEntity = players.get(0);
-
-        Camera camT = camEntity.get(Camera.class);
         Transform playerT = playerEntity.get(Transform.class);
 
-        Vector3f playerPos = playerT.getPosition();
-        Vector3f playerForward = playerT.getForwardVector();
+        FrameArena arena = FrameArena.current();
+        Vector3fc playerPos = playerT.getPosition();
+        Vector3f playerForward = playerT.getForwardVector(arena.vector3f());
 
-        Vector3f desired = new Vector3f(
-            playerPos.x - playerForward.x * followDistance + lateralOffset,
-            playerPos.y + height,
-            playerPos.z - playerForward.z * followDistance
+        Vector3f desired = arena.vector3f().set(
+            playerPos.x() - playerForward.x * followDistance + lateralOffset,
+            playerPos.y() + height,
+            playerPos.z() - playerForward.z * followDistance
         );
 
         // linear interpolation
         float t = 1f - (float) Math.exp(-positionDamping * deltaTime);
-        Vector3f current = camT.getPosition();
-        Vector3f next = new Vector3f(
-            current.x + (desired.x - current.x) * t,
-            current.y + (desired.y - current.y) * t,
-            current.z + (desired.z - current.z) * t
-        );
-        camT.setPosition(next);
+        camT.getPosition().lerp(desired, t);
 
-        Vector3f lookTarget = new Vector3f(playerPos.x, playerPos.y + 1.2f, playerPos.z);
+        Vector3f lookTarget = arena.vector3f().set(playerPos.x(), playerPos.y() + 1.2f, playerPos.z());
         camT.lookAt(lookTarget);
     }
 }
@@ -6,20 +6,31 @@ import java.util.List;
 import org.chapzlock.app.component.PlayerInputComponent;
 import org.chapzlock.app.tags.PlayerTag;
 import org.chapzlock.core.application.System;
+import org.chapzlock.core.application.SystemAccess;
 import org.chapzlock.core.entity.EntityView;
 import org.chapzlock.core.event.EventBus;
 import org.chapzlock.core.event.Subscription;
 import org.chapzlock.core.input.keyboard.KeyPressedEvent;
 import org.chapzlock.core.input.keyboard.KeyReleasedEvent;
 import org.chapzlock.core.registry.ComponentRegistry;
+import org.chapzlock.core.registry.Query;
 import org.lwjgl.glfw.GLFW;
 
 public class PlayerInputSystem implements System {
 
-    private final ComponentRegistry registry = ComponentRegistry.instance();
+    private final ComponentRegistry registry;
+    private final Query players;
     private final EventBus eventBus = EventBus.instance();
     private final List<Subscription> subscriptions = new ArrayList<>();
 
+    public PlayerInputSystem() {
+        this(ComponentRegistry.instance());
+    }
+
+    public PlayerInputSystem(ComponentRegistry registry) {
+        this.registry = registry;
+        this.players = registry.query(PlayerTag.class, PlayerInputComponent.class);
+    }
 
     @Override
     public void onInit() {
@@ -27,13 +38,21 @@ public class PlayerInputSystem implements System {
         this.subscriptions.add(eventBus.subscribe(KeyReleasedEvent.class, this::handleKeyRelease));
     }
 
+    @Override
+    public SystemAccess access() {
+        return SystemAccess.builder()
+            .read(PlayerTag.class)
+            .write(PlayerInputComponent.class)
+            .build();
+    }
+
     @Override
     public void onDestroy() {
         this.subscriptions.forEach(Subscription::unsubscribe);
     }
 
     private boolean handleKeyPress(KeyPressedEvent event) {
-        for (EntityView e : registry.view(PlayerTag.class, PlayerInputComponent.class)) {
+        for (EntityView e : players) {
             var input = e.get(PlayerInputComponent.class);
             switch (event.key()) {
                 case GLFW.GLFW_KEY_UP -> input.setMovingForward(true);
@@ -46,7 +65,7 @@ public class PlayerInputSystem implements System {
     }
 
     private boolean handleKeyRelease(KeyReleasedEvent event) {
-        for (EntityView e : registry.view(PlayerTag.class, PlayerInputComponent.class)) {
+        for (EntityView e : players) {
             var input = e.get(PlayerInputComponent.class);
             switch (event.keyCode()) {
                 case GLFW.GLFW_KEY_UP -> input.setMovingForward(false);
@@ -3,24 +3,46 @@ package org.chapzlock.app.systems;
 import org.chapzlock.app.component.PlayerInputComponent;
 import org.chapzlock.app.tags.PlayerTag;
 import org.chapzlock.core.application.System;
+import org.chapzlock.core.application.SystemAccess;
 import org.chapzlock.core.component.PhysicsBody;
 import org.chapzlock.core.component.Transform;
 import org.chapzlock.core.entity.EntityView;
 import org.chapzlock.core.physics.PhysicsForceUtil;
 import org.chapzlock.core.registry.ComponentRegistry;
+import org.chapzlock.core.registry.Query;
 import org.joml.Vector3f;
 
 public class PlayerMovementSystem implements System {
-    private final ComponentRegistry registry = ComponentRegistry.instance();
+    private final ComponentRegistry registry;
+    private final Query players;
 
     private static final float ENGINE_FORCE = 800f;    // Newtons applied in local forward
     private static final float BRAKE_FORCE = 1000f;     // stronger braking
     private static final float STEER_TORQUE = 1000f;    // torque around local up for yaw
     private static final float ROLL_DAMPING = 0.2f;     // optional damping factor (not used here)
 
+    public PlayerMovementSystem() {
+        this(ComponentRegistry.instance());
+    }
+
+    public PlayerMovementSystem(ComponentRegistry registry) {
+        this.registry = registry;
+        this.players = registry.query(PlayerTag.class, PhysicsBody.class, PlayerInputComponent.class, Transform.class);
+    }
+
+    @Override
+    public SystemAccess access() {
+        return SystemAccess.builder()
+            .read(PlayerTag.class)
+            .read(PlayerInputComponent.class)
+            .read(Transform.class)
+            .write(PhysicsBody.class)
+            .build();
+    }
+
     @Override
     public void onUpdate(float deltaTime) {
-        for (EntityView e : registry.view(PlayerTag.class, PhysicsBody.class, PlayerInputComponent.class, Transform.class)) {
+        for (EntityView e : players) {
             var input = e.get(PlayerInputComponent.class);
             var physicsBody = e.get(PhysicsBody.class);
             // Transform isn't used for computing local forces here - the physics body orientation is used
@@ -2,22 +2,40 @@ package org.chapzlock.app.systems;
 
 import org.chapzlock.app.tags.PlayerTag;
 import org.chapzlock.core.application.System;
+import org.chapzlock.core.application.SystemAccess;
 import org.chapzlock.core.component.Transform;
 import org.chapzlock.core.entity.EntityView;
 import org.chapzlock.core.registry.ComponentRegistry;
+import org.chapzlock.core.registry.Query;
 
 public class PlayerRotateSystem implements System {
-    private final ComponentRegistry registry = ComponentRegistry.instance();
+    private final ComponentRegistry registry;
+    private final Query players;
+
+    public PlayerRotateSystem() {
+        this(ComponentRegistry.instance());
+    }
+
+    public PlayerRotateSystem(ComponentRegistry registry) {
+        this.registry = registry;
+        this.players = registry.query(PlayerTag.class, Transform.class);
+    }
+
+    @Override
+    public SystemAccess access() {
+        return SystemAccess.builder()
+            .read(PlayerTag.class)
+            .write(Transform.class)
+            .build();
+    }
 
     @Override
     public void onUpdate(float deltaTime) {
-        for (EntityView e : registry.view(PlayerTag.class, Transform.class)) {
+        for (EntityView e : players) {
             var transform = e.get(Transform.class);
 
             float speed = 10 * deltaTime;
-            transform.getRotation().x += speed;
-            transform.getRotation().y += speed;
-            transform.getRotation().z += speed;
+            transform.rotate(speed, speed, speed);
         }
     }
 }
@@ -0,0 +1,73 @@
+package org.chapzlock.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.chapzlock.benchmarks.component.Health;
+import org.chapzlock.benchmarks.component.Mass;
+import org.chapzlock.benchmarks.component.Position;
+import org.chapzlock.benchmarks.component.Velocity;
+import org.chapzlock.core.registry.ComponentRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of adding components to existing entities, which moves every entity between archetypes.
+ * Each invocation starts from a fresh registry holding entities without components.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AddComponentBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int entityCount;
+
+    private ComponentRegistry registry;
+    private int[] entities;
+
+    /**
+     * Runs before every invocation, which is acceptable because a single invocation touches at least 1k entities
+     */
+    @Setup(Level.Invocation)
+    public void createEntities() {
+        registry = new ComponentRegistry();
+        entities = new int[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            entities[i] = registry.createEntity();
+        }
+    }
+
+    @Benchmark
+    public ComponentRegistry addOneComponent() {
+        for (int entity : entities) {
+            registry.addComponent(entity, new Position());
+        }
+        return registry;
+    }
+
+    @Benchmark
+    public ComponentRegistry addFourComponents() {
+        for (int entity : entities) {
+            registry.addComponent(entity, new Position());
+            registry.addComponent(entity, new Velocity());
+            registry.addComponent(entity, new Health());
+            registry.addComponent(entity, new Mass());
+        }
+        return registry;
+    }
+
+    @Benchmark
+    public ComponentRegistry addFourComponentsAtOnce() {
+        for (int entity : entities) {
+            registry.addComponents(entity, new Position(), new Velocity(), new Health(), new Mass());
+        }
+        return registry;
+    }
+}
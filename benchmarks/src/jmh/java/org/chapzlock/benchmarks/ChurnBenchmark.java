@@ -0,0 +1,76 @@
+package org.chapzlock.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.chapzlock.benchmarks.component.Position;
+import org.chapzlock.benchmarks.component.Velocity;
+import org.chapzlock.core.registry.ComponentRegistry;
+import org.chapzlock.core.registry.EntityCommandBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Entity churn in a populated registry: every invocation destroys the oldest tenth of the entities and creates the
+ * same number of new ones with two components, either directly or through the command buffer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ChurnBenchmark {
+    private static final int CHURN_DIVISOR = 10;
+
+    @Param({"1000", "10000", "100000"})
+    public int entityCount;
+
+    private ComponentRegistry registry;
+    /**
+     * Ring of live entities, the oldest entity is at {@link #next}
+     */
+    private int[] entities;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        registry = new ComponentRegistry();
+        entities = new int[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            entities[i] = registry.createEntity();
+            registry.addComponents(entities[i], new Position(), new Velocity());
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public ComponentRegistry churn() {
+        for (int i = 0; i < entityCount / CHURN_DIVISOR; i++) {
+            registry.destroyEntity(entities[next]);
+            int entity = registry.createEntity();
+            registry.addComponent(entity, new Position());
+            registry.addComponent(entity, new Velocity());
+            entities[next] = entity;
+            next = (next + 1) % entities.length;
+        }
+        return registry;
+    }
+
+    @Benchmark
+    public ComponentRegistry churnWithCommands() {
+        EntityCommandBuffer commands = registry.commands();
+        for (int i = 0; i < entityCount / CHURN_DIVISOR; i++) {
+            commands.destroy(entities[next]);
+            int entity = commands.spawn();
+            commands.addComponents(entity, new Position(), new Velocity());
+            entities[next] = entity;
+            next = (next + 1) % entities.length;
+        }
+        registry.sync();
+        return registry;
+    }
+}
@@ -0,0 +1,94 @@
+package org.chapzlock.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.chapzlock.benchmarks.component.Health;
+import org.chapzlock.benchmarks.component.Mass;
+import org.chapzlock.benchmarks.component.Position;
+import org.chapzlock.benchmarks.component.Velocity;
+import org.chapzlock.core.application.Component;
+import org.chapzlock.core.entity.EntityView;
+import org.chapzlock.core.registry.ComponentRegistry;
+import org.chapzlock.core.registry.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Iteration over entities matching 1 to 4 component types: the allocating {@link ComponentRegistry#view(Class[])},
+ * {@link EntityView#get(Class)} on the resulting views and the typed {@link Query} iteration for comparison.
+ * Every entity has all four component types, so each pass visits all entities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ViewBenchmark {
+    private static final Class<? extends Component>[] ALL_TYPES = types(
+        Position.class, Velocity.class, Health.class, Mass.class);
+
+    @Param({"1000", "10000", "100000"})
+    public int entityCount;
+
+    @Param({"1", "2", "3", "4"})
+    public int typeCount;
+
+    private ComponentRegistry registry;
+    private Class<? extends Component>[] types;
+    private Query query;
+    private List<EntityView> views;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        registry = new ComponentRegistry();
+        for (int i = 0; i < entityCount; i++) {
+            int entity = registry.createEntity();
+            registry.addComponents(entity, new Position(), new Velocity(), new Health(), new Mass());
+        }
+        types = Arrays.copyOf(ALL_TYPES, typeCount);
+        query = registry.query(types);
+        views = registry.view(types);
+    }
+
+    @Benchmark
+    public List<EntityView> view() {
+        return registry.view(types);
+    }
+
+    @Benchmark
+    public void viewAndGet(Blackhole blackhole) {
+        for (EntityView view : registry.view(types)) {
+            blackhole.consume(view.get(Position.class));
+        }
+    }
+
+    /**
+     * {@link EntityView#get(Class)} on views built beforehand, for every type of the view
+     */
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (EntityView view : views) {
+            for (Class<? extends Component> type : types) {
+                blackhole.consume(view.get(type));
+            }
+        }
+    }
+
+    @Benchmark
+    public void queryEach(Blackhole blackhole) {
+        query.each(Position.class, (entityId, position) -> blackhole.consume(position));
+    }
+
+    @SafeVarargs
+    private static Class<? extends Component>[] types(Class<? extends Component>... types) {
+        return types;
+    }
+}
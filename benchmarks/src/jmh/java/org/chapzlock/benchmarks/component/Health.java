@@ -0,0 +1,10 @@
+package org.chapzlock.benchmarks.component;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Health of a benchmark entity
+ */
+public class Health implements Component {
+    public float value;
+}
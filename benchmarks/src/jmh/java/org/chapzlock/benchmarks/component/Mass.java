@@ -0,0 +1,10 @@
+package org.chapzlock.benchmarks.component;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Mass of a benchmark entity
+ */
+public class Mass implements Component {
+    public float value;
+}
@@ -0,0 +1,12 @@
+package org.chapzlock.benchmarks.component;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Position of a benchmark entity
+ */
+public class Position implements Component {
+    public float x;
+    public float y;
+    public float z;
+}
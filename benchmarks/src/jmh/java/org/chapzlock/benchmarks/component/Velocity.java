@@ -0,0 +1,12 @@
+package org.chapzlock.benchmarks.component;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Velocity of a benchmark entity
+ */
+public class Velocity implements Component {
+    public float x;
+    public float y;
+    public float z;
+}
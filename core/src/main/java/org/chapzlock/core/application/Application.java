@@ -7,6 +7,11 @@ import static org.lwjgl.glfw.GLFW.glfwSwapBuffers;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.chapzlock.core.event.EventBus;
+import org.chapzlock.core.event.EventCoalescer;
+import org.chapzlock.core.event.EventPool;
+import org.chapzlock.core.input.mouse.MouseMovedEvent;
+import org.chapzlock.core.input.mouse.MouseScrolledEvent;
 import org.chapzlock.core.window.Window;
 
 import lombok.Getter;
@@ -14,6 +19,10 @@ import lombok.Getter;
 /**
  * Main application class — manages the layer stack, windows, and the main loop.
  * Supports multiple windows through WindowManager.
+ * <p>
+ * The application does not sync registries itself: {@link World#init()} and {@link World#update(float)} are the
+ * sync points of their registry, layers that manage a registry without a world call
+ * {@link org.chapzlock.core.registry.ComponentRegistry#sync()} at the end of their update.
  */
 public class Application {
     private static Application instance;
@@ -29,6 +38,13 @@ public class Application {
     private Application(ApplicationSpecification spec) {
         this.appSpec = spec;
         ApplicationUtil.init();
+        EventBus eventBus = EventBus.instance();
+        eventBus.setDispatchMode(spec.getEventDispatchMode());
+        // cursor positions are absolute, scroll offsets are relative to the previous event
+        eventBus.setCoalescer(MouseMovedEvent.class, EventCoalescer.keepLast());
+        eventBus.setCoalescer(MouseScrolledEvent.class, (pending, next) ->
+            MouseScrolledEvent.obtain(pending.xOffset() + next.xOffset(), pending.yOffset() + next.yOffset()));
+        EventPool.setRetentionChecks(spec.isEventRetentionChecks());
     }
 
     public void pushLayer(Layer layer) {
@@ -63,11 +79,15 @@ public class Application {
 
             ApplicationUtil.clearAndPrepareWindowState();
 
+            // every world applies its recorded structural changes at the end of World.update, before rendering
             layerStack.forEach(layer -> layer.onUpdate(delta));
             layerStack.forEach(layer -> layer.onRender(delta));
 
             glfwSwapBuffers(window.getId());
             glfwPollEvents();
+            // events queued by window callbacks and other threads are dispatched before the next update
+            EventBus.instance().dispatchQueued();
+            FrameArena.endFrame();
         }
 
         layerStack.forEach(Layer::onDestroy);
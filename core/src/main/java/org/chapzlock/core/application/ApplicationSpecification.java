@@ -1,5 +1,6 @@
 package org.chapzlock.core.application;
 
+import org.chapzlock.core.event.DispatchMode;
 import org.chapzlock.core.window.WindowSpecification;
 
 import lombok.Builder;
@@ -16,4 +17,14 @@ public class ApplicationSpecification {
     @Builder.Default
     private String name = "Application";
     private WindowSpecification windowSpec;
+    /**
+     * Delivery of window and input events, see {@link org.chapzlock.core.event.EventBus#post}
+     */
+    @Builder.Default
+    private DispatchMode eventDispatchMode = DispatchMode.SYNCHRONOUS;
+    /**
+     * Development safety mode that detects listeners keeping pooled events, see
+     * {@link org.chapzlock.core.event.EventPool#setRetentionChecks(boolean)}
+     */
+    private boolean eventRetentionChecks;
 }
@@ -0,0 +1,12 @@
+package org.chapzlock.core.application;
+
+/**
+ * Component that records its own modifications, so that change detection
+ * does not depend on callers marking it as changed in the registry.
+ */
+public interface ChangeTracked extends Component {
+    /**
+     * @return registry change tick of the last modification
+     */
+    int getChangeTick();
+}
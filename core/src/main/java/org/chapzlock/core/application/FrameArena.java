@@ -0,0 +1,120 @@
+package org.chapzlock.core.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+/**
+ * Frame scoped scratch memory for transient math objects.
+ * <p>
+ * Every thread has its own arena with pools of JOML objects. Objects taken from {@link #current()} are valid until
+ * the arena of that thread is reset, after which they are handed out again, so they must never be stored in fields
+ * or passed to other threads. The pools grow during the first frames and allocate nothing once they reached the size
+ * the game loop needs.
+ * <p>
+ * Arenas are reset per thread, never by other threads. Scoped work takes a {@link #mark()} and gives everything
+ * taken since back with {@link #reset(long)}: {@link World#update(float)}, the {@link SystemScheduler} and parallel
+ * query passes do so around their work, so worlds updated on their own threads need nothing else. The
+ * {@link Application} ends the frame of the main thread after rendering with {@link #endFrame()}; other long-lived
+ * threads using the arena outside such scopes must call it themselves.
+ */
+public final class FrameArena {
+    /**
+     * Upper bound for objects of one type per thread and frame, reaching it means frames are not ended
+     */
+    private static final int MAX_OBJECTS_PER_FRAME = 4096;
+    private static final ThreadLocal<FrameArena> ARENAS = ThreadLocal.withInitial(FrameArena::new);
+    /**
+     * Bits of a pool position within a mark, enough for {@link #MAX_OBJECTS_PER_FRAME}
+     */
+    private static final int MARK_BITS = 16;
+    private static final long MARK_MASK = (1L << MARK_BITS) - 1;
+
+    private final Pool<Vector3f> vectors = new Pool<>(Vector3f::new);
+    private final Pool<Quaternionf> quaternions = new Pool<>(Quaternionf::new);
+    private final Pool<Matrix4f> matrices = new Pool<>(Matrix4f::new);
+
+    private FrameArena() {
+    }
+
+    /**
+     * @return the arena of the calling thread
+     */
+    public static FrameArena current() {
+        return ARENAS.get();
+    }
+
+    /**
+     * Ends the frame of the calling thread, all objects its arena handed out may be reused afterward.
+     * Arenas of other threads are not affected.
+     */
+    public static void endFrame() {
+        current().reset(0);
+    }
+
+    /**
+     * @return the current position of the arena, to give back the objects taken afterward with {@link #reset(long)}
+     */
+    public long mark() {
+        return (long) vectors.used << (2 * MARK_BITS) | (long) quaternions.used << MARK_BITS | matrices.used;
+    }
+
+    /**
+     * Gives back every object taken since the mark was taken, so they may be handed out again.
+     * Marks must be reset in reverse order of taking them.
+     */
+    public void reset(long mark) {
+        vectors.used = (int) (mark >>> (2 * MARK_BITS) & MARK_MASK);
+        quaternions.used = (int) (mark >>> MARK_BITS & MARK_MASK);
+        matrices.used = (int) (mark & MARK_MASK);
+    }
+
+    /**
+     * @return a zero vector valid until the end of the frame
+     */
+    public Vector3f vector3f() {
+        return vectors.next().zero();
+    }
+
+    /**
+     * @return an identity quaternion valid until the end of the frame
+     */
+    public Quaternionf quaternionf() {
+        return quaternions.next().identity();
+    }
+
+    /**
+     * @return an identity matrix valid until the end of the frame
+     */
+    public Matrix4f matrix4f() {
+        return matrices.next().identity();
+    }
+
+    /**
+     * Growing list of reusable objects of one type
+     */
+    private static final class Pool<T> {
+        private final Supplier<T> factory;
+        private final List<T> objects = new ArrayList<>();
+        private int used;
+
+        Pool(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        T next() {
+            if (used == objects.size()) {
+                if (used == MAX_OBJECTS_PER_FRAME) {
+                    throw new IllegalStateException("Frame arena exhausted, objects must be given back with "
+                        + "FrameArena.reset(mark) or FrameArena.endFrame() once per frame");
+                }
+                objects.add(factory.get());
+            }
+            return objects.get(used++);
+        }
+    }
+}
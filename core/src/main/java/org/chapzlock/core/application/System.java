@@ -13,4 +13,15 @@ public interface System {
 
     default void onDestroy() {}
 
+    /**
+     * Component types touched by {@link #onUpdate(float)}. Systems that declare their access may be updated
+     * concurrently with other systems by the {@link SystemScheduler}, so their update must not touch the GL context
+     * and must record structural changes into the command buffer of the registry.
+     *
+     * @return exclusive access unless overridden
+     */
+    default SystemAccess access() {
+        return SystemAccess.EXCLUSIVE;
+    }
+
 }
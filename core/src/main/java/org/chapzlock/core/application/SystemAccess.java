@@ -0,0 +1,51 @@
+package org.chapzlock.core.application;
+
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+/**
+ * Declares which component types a system reads and writes during {@link System#onUpdate(float)}.
+ * The {@link SystemScheduler} runs systems whose accesses do not conflict at the same time.
+ */
+@Builder
+@Getter
+public class SystemAccess {
+    /**
+     * Access of systems that did not declare anything. They run alone on the main thread.
+     */
+    public static final SystemAccess EXCLUSIVE = SystemAccess.builder()
+        .exclusive(true)
+        .build();
+
+    @Singular("read")
+    private final Set<Class<? extends Component>> reads;
+    @Singular("write")
+    private final Set<Class<? extends Component>> writes;
+    /**
+     * Exclusive systems may touch anything, including thread bound resources like the GL context
+     */
+    private final boolean exclusive;
+
+    /**
+     * Two systems conflict if either is exclusive or one writes a component type the other reads or writes.
+     */
+    public boolean conflictsWith(SystemAccess other) {
+        if (exclusive || other.exclusive) {
+            return true;
+        }
+        for (Class<? extends Component> type : writes) {
+            if (other.reads.contains(type) || other.writes.contains(type)) {
+                return true;
+            }
+        }
+        for (Class<? extends Component> type : other.writes) {
+            if (reads.contains(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
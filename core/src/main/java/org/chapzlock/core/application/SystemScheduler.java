@@ -0,0 +1,176 @@
+package org.chapzlock.core.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the update phase of a list of systems, in parallel where their declared {@link SystemAccess} allows it.
+ * <p>
+ * The list order is the logical order: a system that conflicts with an earlier one always runs after it.
+ * Consecutive systems with declared access form a stage whose dependency graph is executed on a
+ * {@link ForkJoinPool}; a system becomes ready as soon as every earlier conflicting system has finished.
+ * Exclusive systems act as barriers and are updated on the calling (main) thread.
+ * <p>
+ * Rendering is not scheduled, {@link System#onRender(float)} must be called on the main thread.
+ */
+public class SystemScheduler {
+    private final ForkJoinPool pool;
+    private final List<Stage> stages = new ArrayList<>();
+
+    public SystemScheduler(List<? extends System> systems) {
+        this(systems, ForkJoinPool.commonPool());
+    }
+
+    public SystemScheduler(List<? extends System> systems, ForkJoinPool pool) {
+        this.pool = pool;
+        List<System> parallel = new ArrayList<>();
+        for (System system : systems) {
+            if (system.access().isExclusive()) {
+                addStage(parallel);
+                stages.add(new Stage(List.of(system)));
+            } else {
+                parallel.add(system);
+            }
+        }
+        addStage(parallel);
+    }
+
+    /**
+     * Updates all systems and waits until every one of them has finished.
+     * Exceptions thrown by systems are rethrown on the calling thread.
+     */
+    public void update(float deltaTime) {
+        for (Stage stage : stages) {
+            stage.update(deltaTime);
+        }
+    }
+
+    private void addStage(List<System> systems) {
+        if (!systems.isEmpty()) {
+            stages.add(new Stage(List.copyOf(systems)));
+            systems.clear();
+        }
+    }
+
+    /**
+     * Systems that are executed as one dependency graph
+     */
+    private final class Stage {
+        private final SystemTask[] tasks;
+        private final AtomicInteger remaining = new AtomicInteger();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private float deltaTime;
+
+        Stage(List<System> systems) {
+            tasks = new SystemTask[systems.size()];
+            for (int i = 0; i < tasks.length; i++) {
+                tasks[i] = new SystemTask(this, systems.get(i));
+            }
+            for (int later = 0; later < tasks.length; later++) {
+                SystemAccess access = systems.get(later).access();
+                for (int earlier = 0; earlier < later; earlier++) {
+                    if (access.conflictsWith(systems.get(earlier).access())) {
+                        tasks[earlier].dependents.add(tasks[later]);
+                        tasks[later].dependencyCount++;
+                    }
+                }
+            }
+        }
+
+        void update(float deltaTime) {
+            if (tasks.length == 1) {
+                tasks[0].system.onUpdate(deltaTime);
+                return;
+            }
+            this.deltaTime = deltaTime;
+            failure.set(null);
+            remaining.set(tasks.length);
+            for (SystemTask task : tasks) {
+                task.reinitialize();
+                task.pending.set(task.dependencyCount);
+            }
+            for (SystemTask task : tasks) {
+                if (task.dependencyCount == 0) {
+                    pool.execute(task);
+                }
+            }
+            awaitCompletion();
+            // tasks signal the stage before the pool marks them done, reinitializing one too early would drop it
+            for (SystemTask task : tasks) {
+                task.quietlyJoin();
+            }
+
+            Throwable error = failure.get();
+            if (error instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (error instanceof Error e) {
+                throw e;
+            }
+            if (error != null) {
+                throw new IllegalStateException("System update failed", error);
+            }
+        }
+
+        void onTaskFinished() {
+            if (remaining.decrementAndGet() == 0) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        private synchronized void awaitCompletion() {
+            boolean interrupted = false;
+            while (remaining.get() > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Reusable fork-join task updating one system, forks its dependents once they have no pending dependencies
+     */
+    private static final class SystemTask extends RecursiveAction {
+        private final Stage stage;
+        private final System system;
+        private final List<SystemTask> dependents = new ArrayList<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private int dependencyCount;
+
+        SystemTask(Stage stage, System system) {
+            this.stage = stage;
+            this.system = system;
+        }
+
+        @Override
+        protected void compute() {
+            FrameArena arena = FrameArena.current();
+            long mark = arena.mark();
+            try {
+                system.onUpdate(stage.deltaTime);
+            } catch (Throwable t) {
+                stage.failure.compareAndSet(null, t);
+            } finally {
+                arena.reset(mark);
+            }
+            for (SystemTask dependent : dependents) {
+                if (dependent.pending.decrementAndGet() == 0) {
+                    dependent.fork();
+                }
+            }
+            stage.onTaskFinished();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package org.chapzlock.core.application;
 
-
+/**
+ * Marker component without data. Tags are stored as a single bit per entity,
+ * all entities share the first instance added for a tag type.
+ */
 public interface Tag extends Component {
 }
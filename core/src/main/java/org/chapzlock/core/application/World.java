@@ -0,0 +1,116 @@
+package org.chapzlock.core.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.chapzlock.core.registry.ComponentRegistry;
+
+import lombok.Getter;
+
+/**
+ * Independent simulation: a registry together with the systems operating on it.
+ * <p>
+ * Worlds do not share entities, components or physics, so several of them can live in one process and be updated
+ * on separate threads, e.g. one world per lobby on a dedicated server. A single world must only be updated by one
+ * thread at a time. The {@link #defaultWorld()} owns {@link ComponentRegistry#instance()}, which systems use
+ * when they are not given a registry.
+ */
+public class World {
+    private static World defaultWorld;
+
+    @Getter
+    private final ComponentRegistry registry;
+    private final List<System> systems = new ArrayList<>();
+    /**
+     * Created on the first update, so that every system added before is scheduled
+     */
+    private SystemScheduler scheduler;
+
+    /**
+     * Creates a world with a new empty registry
+     */
+    public World() {
+        this(new ComponentRegistry());
+    }
+
+    private World(ComponentRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @return the world owning {@link ComponentRegistry#instance()}
+     */
+    public static synchronized World defaultWorld() {
+        if (defaultWorld == null) {
+            defaultWorld = new World(ComponentRegistry.instance());
+        }
+        return defaultWorld;
+    }
+
+    /**
+     * Adds a system, in update order. Systems should be added before the world is initialized.
+     */
+    public World addSystem(System system) {
+        systems.add(system);
+        scheduler = null;
+        return this;
+    }
+
+    /**
+     * Creates a system for the registry of this world and adds it, e.g. {@code world.addSystem(PhysicsSystem::new)}
+     */
+    public World addSystem(Function<ComponentRegistry, ? extends System> factory) {
+        return addSystem(factory.apply(registry));
+    }
+
+    /**
+     * @return the systems of the world in update order
+     */
+    public List<System> getSystems() {
+        return List.copyOf(systems);
+    }
+
+    /**
+     * Initializes all systems and applies the structural changes they recorded
+     */
+    public void init() {
+        systems.forEach(System::onInit);
+        registry.sync();
+    }
+
+    /**
+     * Updates all systems, followed by the sync point of the registry.
+     * Frame arena objects the calling thread takes during the update are given back afterward.
+     */
+    public void update(float deltaTime) {
+        if (scheduler == null) {
+            scheduler = new SystemScheduler(systems);
+        }
+        FrameArena arena = FrameArena.current();
+        long mark = arena.mark();
+        try {
+            scheduler.update(deltaTime);
+            registry.sync();
+        } finally {
+            arena.reset(mark);
+        }
+    }
+
+    /**
+     * Renders all systems, must be called on the thread owning the GL context
+     */
+    public void render(float deltaTime) {
+        for (System system : systems) {
+            system.onRender(deltaTime);
+        }
+    }
+
+    /**
+     * Destroys all systems and frees the off-heap memory of the registry, see {@link ComponentRegistry#close()}
+     */
+    public void destroy() {
+        systems.forEach(System::onDestroy);
+        registry.close();
+    }
+}
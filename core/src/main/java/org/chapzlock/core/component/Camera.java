@@ -8,6 +8,7 @@ import static org.joml.Math.toRadians;
 import org.chapzlock.core.application.Component;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
+import org.joml.Vector3fc;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -51,22 +52,46 @@ public class Camera implements Component {
      * Returns the normalized forward (front) vector of the camera.
      */
     public Vector3f getCameraFront() {
+        return getCameraFront(new Vector3f());
+    }
+
+    /**
+     * Writes the normalized forward (front) vector of the camera into dest
+     *
+     * @return dest
+     */
+    public Vector3f getCameraFront(Vector3f dest) {
         float yawRad = toRadians(getYaw());
         float pitchRad = toRadians(getPitch());
 
-        Vector3f front = new Vector3f();
-        front.x = cos(yawRad) * cos(pitchRad);
-        front.y = sin(pitchRad);
-        front.z = sin(yawRad) * cos(pitchRad);
-        return front.normalize();
+        dest.x = cos(yawRad) * cos(pitchRad);
+        dest.y = sin(pitchRad);
+        dest.z = sin(yawRad) * cos(pitchRad);
+        return dest.normalize();
     }
 
     public Vector3f getCameraUp() {
-        return new Vector3f(0, 1, 0);
+        return getCameraUp(new Vector3f());
+    }
+
+    /**
+     * @return dest set to the up vector of the camera
+     */
+    public Vector3f getCameraUp(Vector3f dest) {
+        return dest.set(0, 1, 0);
     }
 
     public Vector3f getCameraRight() {
-        return new Vector3f(getCameraFront()).cross(getCameraUp()).normalize();
+        return getCameraRight(new Vector3f());
+    }
+
+    /**
+     * Writes the normalized right vector of the camera into dest
+     *
+     * @return dest
+     */
+    public Vector3f getCameraRight(Vector3f dest) {
+        return getCameraFront(dest).cross(0, 1, 0).normalize();
     }
 
     public float getYaw() {
@@ -85,22 +110,27 @@ public class Camera implements Component {
         rotation.x = value;
     }
 
-    public void lookAt(Vector3f target) {
+    public void lookAt(Vector3fc target) {
         // direction from camera to target
-        Vector3f dir = new Vector3f(target).sub(position);
-        float len2 = dir.lengthSquared();
+        float dirX = target.x() - position.x;
+        float dirY = target.y() - position.y;
+        float dirZ = target.z() - position.z;
+        float len2 = dirX * dirX + dirY * dirY + dirZ * dirZ;
         if (len2 == 0f) {
             // target equals camera position; nothing to do
             return;
         }
 
-        dir.normalize();
+        float invLength = (float) (1.0 / Math.sqrt(len2));
+        dirX *= invLength;
+        dirY *= invLength;
+        dirZ *= invLength;
 
         // pitch: asin(y) -> range [-90,90] degrees
-        float pitchDeg = (float) Math.toDegrees(Math.asin(dir.y));
+        float pitchDeg = (float) Math.toDegrees(Math.asin(dirY));
 
         // yaw: atan2(z, x) -> range [-180,180] degrees
-        float yawDeg = (float) Math.toDegrees(Math.atan2(dir.z, dir.x));
+        float yawDeg = (float) Math.toDegrees(Math.atan2(dirZ, dirX));
 
         // clamp pitch a bit to avoid looking straight up/down (optional)
         final float MAX_PITCH = 89.0f;
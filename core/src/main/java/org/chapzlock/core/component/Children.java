@@ -0,0 +1,41 @@
+package org.chapzlock.core.component;
+
+import java.util.Arrays;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Entities attached to this entity. Managed by {@link org.chapzlock.core.system.HierarchySystem}.
+ */
+public class Children implements Component {
+    private int[] entities = new int[4];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int index) {
+        return entities[index];
+    }
+
+    public void add(int entity) {
+        if (size == entities.length) {
+            entities = Arrays.copyOf(entities, size * 2);
+        }
+        entities[size++] = entity;
+    }
+
+    /**
+     * Removes the child while keeping the order of the remaining children
+     */
+    public void remove(int entity) {
+        for (int i = 0; i < size; i++) {
+            if (entities[i] == entity) {
+                System.arraycopy(entities, i + 1, entities, i, size - i - 1);
+                size--;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.chapzlock.core.component;
+
+import org.chapzlock.core.application.Tag;
+
+/**
+ * Marks an entity that should not be rendered
+ */
+public class Hidden implements Tag {
+}
@@ -0,0 +1,16 @@
+package org.chapzlock.core.component;
+
+import org.chapzlock.core.application.Component;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Attaches the entity to a parent entity, its transform becomes relative to the parent transform.
+ * Managed by {@link org.chapzlock.core.system.HierarchySystem}.
+ */
+@Getter
+@AllArgsConstructor
+public class Parent implements Component {
+    private final int entity;
+}
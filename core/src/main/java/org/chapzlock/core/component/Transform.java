@@ -3,79 +3,202 @@ package org.chapzlock.core.component;
 
 import static org.joml.Math.toRadians;
 
-import org.chapzlock.core.application.Component;
+import org.chapzlock.core.application.ChangeTracked;
 import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Quaternionfc;
 import org.joml.Vector3f;
-
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
-
-@Getter
-@Setter
-@NoArgsConstructor
-public class Transform implements Component {
+import org.joml.Vector3fc;
+
+/**
+ * Position, rotation and scale of an entity.
+ * <p>
+ * A transform is a handle to a slot in a {@link TransformStore}. Transforms that are not part of a registry own a
+ * private single slot store; once added to a {@link org.chapzlock.core.registry.ComponentRegistry} their data moves
+ * into the packed store of the registry. Vectors returned by the getters are read-only snapshots,
+ * use the setters to modify the transform, which also invalidates the cached transformation matrix.
+ * <p>
+ * Rotations are stored as quaternions. Euler angles in degrees (applied in X → Y → Z order) are supported
+ * as a convenience, but are converted on every call.
+ */
+public class Transform implements ChangeTracked {
+    TransformStore store;
+    int index;
     /**
-     * Position in world space
+     * Transform this one is relative to, maintained by the hierarchy system
      */
-    @Getter
-    @Setter
-    private Vector3f position = new Vector3f(0, 0,0);
+    private Transform parent;
+
     /**
-     * Rotation in degrees
+     * Snapshot instances reused by the getters for better garbage collector performance
      */
-    @Getter
-    @Setter
-    private Vector3f rotation = new Vector3f(0, 0, 0);
-    @Getter
-    @Setter
-    private float scale = 1;
+    private final Vector3f position = new Vector3f();
+    private final Vector3f rotation = new Vector3f();
+    private final Quaternionf orientation = new Quaternionf();
     /**
      * Stores the transformationMatrix and reuses the same instance across recalculations
      * for better garbage collector performance
      */
-    private Matrix4f transformationMatrix = new Matrix4f();
+    private final Matrix4f transformationMatrix = new Matrix4f();
+    private final Matrix4f worldMatrix = new Matrix4f();
+
+    public Transform() {
+        this(new Vector3f(0, 0, 0));
+    }
+
+    public Transform(Vector3fc position) {
+        this(position, new Vector3f(0, 0, 0));
+    }
+
+    public Transform(Vector3fc position, Vector3fc rotation) {
+        this(position, rotation, 1);
+    }
 
-    public Transform(Vector3f position) {
-        this.position = position;
+    public Transform(Vector3fc position, Vector3fc rotation, float scale) {
+        this.store = new TransformStore(1);
+        this.index = store.add(this);
+        setPosition(position);
+        setRotation(rotation);
+        setScale(scale);
     }
 
-    public Transform(Vector3f position, Vector3f rotation) {
-        this.position = position;
-        this.rotation = rotation;
+    /**
+     * Position in world space
+     */
+    public Vector3fc getPosition() {
+        return position.set(store.positionX[index], store.positionY[index], store.positionZ[index]);
     }
 
-    public Transform(Vector3f position, Vector3f rotation, float scale) {
-        this.position = position;
-        this.rotation = rotation;
-        this.scale = scale;
+    public void setPosition(Vector3fc position) {
+        setPosition(position.x(), position.y(), position.z());
     }
 
     public void setPosition(float x, float y, float z) {
-        this.position.x = x;
-        this.position.y = y;
-        this.position.z = z;
+        store.positionX[index] = x;
+        store.positionY[index] = y;
+        store.positionZ[index] = z;
+        store.markChanged(index);
+    }
+
+    /**
+     * Rotation as Euler angles in degrees, derived from the orientation
+     */
+    public Vector3fc getRotation() {
+        loadOrientation().getEulerAnglesXYZ(rotation);
+        return rotation.set((float) Math.toDegrees(rotation.x), (float) Math.toDegrees(rotation.y),
+            (float) Math.toDegrees(rotation.z));
+    }
+
+    public void setRotation(Vector3fc rotation) {
+        setRotation(rotation.x(), rotation.y(), rotation.z());
+    }
+
+    /**
+     * Sets the rotation from Euler angles in degrees
+     */
+    public void setRotation(float x, float y, float z) {
+        setOrientation(orientation.rotationXYZ(toRadians(x), toRadians(y), toRadians(z)));
+    }
+
+    /**
+     * Rotates the transform by Euler angles in degrees, relative to its current rotation
+     */
+    public void rotate(float x, float y, float z) {
+        setOrientation(loadOrientation().rotateXYZ(toRadians(x), toRadians(y), toRadians(z)));
+    }
+
+    /**
+     * Rotation as unit quaternion
+     */
+    public Quaternionfc getOrientation() {
+        return loadOrientation();
+    }
+
+    public void setOrientation(Quaternionfc orientation) {
+        setOrientation(orientation.x(), orientation.y(), orientation.z(), orientation.w());
+    }
+
+    /**
+     * Sets the rotation from the components of a unit quaternion
+     */
+    public void setOrientation(float x, float y, float z, float w) {
+        store.rotationX[index] = x;
+        store.rotationY[index] = y;
+        store.rotationZ[index] = z;
+        store.rotationW[index] = w;
+        store.markChanged(index);
+    }
+
+    public float getScale() {
+        return store.scale[index];
+    }
+
+    public void setScale(float scale) {
+        store.scale[index] = scale;
+        store.markChanged(index);
+    }
+
+    @Override
+    public int getChangeTick() {
+        return store.changeTicks[index];
+    }
+
+    public Transform getParent() {
+        return parent;
+    }
+
+    /**
+     * Makes this transform relative to the parent transform. Use
+     * {@link org.chapzlock.core.system.HierarchySystem#setParent(int, int)} to attach entities,
+     * which keeps this link in sync with the {@link Parent} and {@link Children} components.
+     */
+    public void setParent(Transform parent) {
+        this.parent = parent;
+        store.worldDirty[index] = true;
+    }
+
+    /**
+     * Returns the matrix that transforms from the local space of this transform to world space.
+     * Root transforms are calculated on demand, child transforms are kept up to date by the hierarchy system.
+     * The returned matrix is reused by subsequent calls.
+     */
+    public Matrix4f getWorldMatrix() {
+        if (parent == null) {
+            updateWorldMatrix(false);
+        }
+        return worldMatrix.set(store.worldMatrices, index * 16);
+    }
+
+    /**
+     * Recalculates the world matrix if this transform changed or its parent was recalculated.
+     * The world matrix of the parent must already be up to date.
+     *
+     * @return true if the world matrix was recalculated
+     */
+    public boolean updateWorldMatrix(boolean parentChanged) {
+        return store.calculateWorldMatrix(index, parent, parentChanged, worldMatrix);
+    }
+
+    /**
+     * @return the store currently holding the data of this transform
+     */
+    public TransformStore getStore() {
+        return store;
+    }
+
+    /**
+     * @return slot of this transform in its store
+     */
+    public int getIndex() {
+        return index;
     }
 
     /**
-     * Calculates a transformation matrix for the current transform
+     * Calculates a transformation matrix for the current transform.
+     * The matrix is cached and only recalculated after the transform changed.
      */
     public Matrix4f calculateTransformationMatrix() {
-        this.transformationMatrix.identity();
-        // Convert rotation from degrees to radians
-        float rotX = (float) Math.toRadians(this.rotation.x);
-        float rotY = (float) Math.toRadians(this.rotation.y);
-        float rotZ = (float) Math.toRadians(this.rotation.z);
-        // Apply translation
-        this.transformationMatrix.translate(this.position);
-        // Apply rotations (order: X → Y → Z)
-        this.transformationMatrix
-            .rotate(rotX, 1, 0, 0)
-            .rotate(rotY, 0, 1, 0)
-            .rotate(rotZ, 0, 0, 1);
-        // Apply uniform scale
-        this.transformationMatrix.scale(this.scale);
-        return this.transformationMatrix;
+        return store.calculateTransformationMatrix(index, transformationMatrix);
     }
 
     /**
@@ -84,19 +207,16 @@ public class Transform implements Component {
      * @return forward vector (world space)
      */
     public Vector3f getForwardVector() {
-        Vector3f forward = new Vector3f(0, 0, 1);
-
-        float rotX = toRadians(this.rotation.x);
-        float rotY = toRadians(this.rotation.y);
-        float rotZ = toRadians(this.rotation.z);
-
-        Matrix4f rotationMatrix = new Matrix4f()
-            .rotate(rotX, 1, 0, 0)
-            .rotate(rotY, 0, 1, 0)
-            .rotate(rotZ, 0, 0, 1);
+        return getForwardVector(new Vector3f());
+    }
 
-        rotationMatrix.transformDirection(forward);
-        return forward.normalize();
+    /**
+     * Writes the normalized forward facing vector (world space) into dest
+     *
+     * @return dest
+     */
+    public Vector3f getForwardVector(Vector3f dest) {
+        return loadOrientation().transform(0, 0, 1, dest);
     }
 
     /**
@@ -105,19 +225,21 @@ public class Transform implements Component {
      * @return
      */
     public Vector3f getRightVector() {
-        // Canonical right is +X
-        Vector3f right = new Vector3f(1, 0, 0);
-
-        float rotX = toRadians(this.rotation.x);
-        float rotY = toRadians(this.rotation.y);
-        float rotZ = toRadians(this.rotation.z);
+        return getRightVector(new Vector3f());
+    }
 
-        Matrix4f rotationMatrix = new Matrix4f()
-            .rotate(rotX, 1, 0, 0)
-            .rotate(rotY, 0, 1, 0)
-            .rotate(rotZ, 0, 0, 1);
+    /**
+     * Writes the normalized right facing vector (world space) into dest
+     *
+     * @return dest
+     */
+    public Vector3f getRightVector(Vector3f dest) {
+        // Canonical right is +X
+        return loadOrientation().transform(1, 0, 0, dest);
+    }
 
-        rotationMatrix.transformDirection(right);
-        return right.normalize();
+    private Quaternionf loadOrientation() {
+        return orientation.set(store.rotationX[index], store.rotationY[index], store.rotationZ[index],
+            store.rotationW[index]);
     }
 }
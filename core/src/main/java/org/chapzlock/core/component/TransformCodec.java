@@ -0,0 +1,35 @@
+package org.chapzlock.core.component;
+
+import java.nio.ByteBuffer;
+
+import org.chapzlock.core.registry.ComponentCodec;
+
+/**
+ * Writes position, orientation and scale of a transform as eight floats.
+ * Parent links are not part of the encoding, hierarchies have to be attached again after restoring.
+ */
+public class TransformCodec implements ComponentCodec<Transform> {
+
+    @Override
+    public void write(Transform transform, ByteBuffer buffer) {
+        TransformStore store = transform.store;
+        int index = transform.index;
+        buffer.putFloat(store.positionX[index])
+            .putFloat(store.positionY[index])
+            .putFloat(store.positionZ[index])
+            .putFloat(store.rotationX[index])
+            .putFloat(store.rotationY[index])
+            .putFloat(store.rotationZ[index])
+            .putFloat(store.rotationW[index])
+            .putFloat(store.scale[index]);
+    }
+
+    @Override
+    public Transform read(ByteBuffer buffer) {
+        Transform transform = new Transform();
+        transform.setPosition(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+        transform.setOrientation(buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+        transform.setScale(buffer.getFloat());
+        return transform;
+    }
+}
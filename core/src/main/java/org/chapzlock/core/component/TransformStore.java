@@ -0,0 +1,364 @@
+package org.chapzlock.core.component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+import org.joml.Matrix4f;
+
+/**
+ * Structure-of-arrays storage for {@link Transform} data.
+ * <p>
+ * Positions, rotations, scales and transformation matrices of all attached transforms are kept in parallel
+ * primitive arrays, packed without holes. {@link Transform} objects act as handles that point to a slot in a store,
+ * so systems can either use the familiar object API or sweep the arrays linearly.
+ * <p>
+ * Transformation matrices are cached: a slot is only recalculated after one of its values changed,
+ * so static transforms cost nothing after their first calculation.
+ * <p>
+ * World matrices (the local matrix combined with the world matrices of all parents) are kept in a second packed
+ * array. They are only recalculated when the slot or one of its parents changed, see {@link Transform#getWorldMatrix()}.
+ * <p>
+ * Array getters expose the live storage. Only indices below {@link #size()} are valid and arrays may be replaced
+ * when the store grows, so they should be fetched again after transforms are attached.
+ */
+public final class TransformStore {
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int MATRIX_SIZE = 16;
+    private static final VarHandle CHANGE_TICK;
+
+    static {
+        try {
+            CHANGE_TICK = MethodHandles.lookup().findVarHandle(TransformStore.class, "changeTick", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    float[] positionX;
+    float[] positionY;
+    float[] positionZ;
+    /**
+     * Rotation as unit quaternion
+     */
+    float[] rotationX;
+    float[] rotationY;
+    float[] rotationZ;
+    float[] rotationW;
+    float[] scale;
+    /**
+     * Column-major 4x4 transformation matrices, 16 floats per slot
+     */
+    float[] matrices;
+    /**
+     * Slots whose cached matrix is out of date
+     */
+    boolean[] matrixDirty;
+    /**
+     * Column-major 4x4 world matrices, 16 floats per slot
+     */
+    float[] worldMatrices;
+    /**
+     * Slots whose world matrix is out of date because their own values changed
+     */
+    boolean[] worldDirty;
+    /**
+     * Incremented every time the world matrix of a slot is recalculated
+     */
+    int[] worldVersions;
+    /**
+     * World version of the parent the world matrix of every slot was last calculated from
+     */
+    int[] parentWorldVersions;
+    /**
+     * Registry change tick of the last modification of every slot
+     */
+    int[] changeTicks;
+    /**
+     * Tick stamped on modified slots, maintained by the owning registry
+     */
+    volatile int changeTick;
+
+    private Transform[] handles;
+    private int size;
+
+    public TransformStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TransformStore(int capacity) {
+        int initialCapacity = Math.max(1, capacity);
+        positionX = new float[initialCapacity];
+        positionY = new float[initialCapacity];
+        positionZ = new float[initialCapacity];
+        rotationX = new float[initialCapacity];
+        rotationY = new float[initialCapacity];
+        rotationZ = new float[initialCapacity];
+        rotationW = new float[initialCapacity];
+        scale = new float[initialCapacity];
+        matrices = new float[initialCapacity * MATRIX_SIZE];
+        matrixDirty = new boolean[initialCapacity];
+        worldMatrices = new float[initialCapacity * MATRIX_SIZE];
+        worldDirty = new boolean[initialCapacity];
+        worldVersions = new int[initialCapacity];
+        parentWorldVersions = new int[initialCapacity];
+        changeTicks = new int[initialCapacity];
+        handles = new Transform[initialCapacity];
+    }
+
+    /**
+     * @return number of transforms stored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return handle of the transform stored at the index
+     */
+    public Transform get(int index) {
+        return handles[index];
+    }
+
+    public float[] getPositionX() {
+        return positionX;
+    }
+
+    public float[] getPositionY() {
+        return positionY;
+    }
+
+    public float[] getPositionZ() {
+        return positionZ;
+    }
+
+    public float[] getRotationX() {
+        return rotationX;
+    }
+
+    public float[] getRotationY() {
+        return rotationY;
+    }
+
+    public float[] getRotationZ() {
+        return rotationZ;
+    }
+
+    public float[] getRotationW() {
+        return rotationW;
+    }
+
+    public float[] getScale() {
+        return scale;
+    }
+
+    /**
+     * Cached matrices, only valid for slots that have been calculated since their last change
+     */
+    public float[] getMatrices() {
+        return matrices;
+    }
+
+    /**
+     * Cached world matrices, only valid for slots whose world matrix has been calculated since their last change
+     */
+    public float[] getWorldMatrices() {
+        return worldMatrices;
+    }
+
+    public int[] getChangeTicks() {
+        return changeTicks;
+    }
+
+    /**
+     * Sets the tick stamped on transforms modified from now on. The tick only moves forward, so registries advancing
+     * their tick from several threads can not leave an older tick behind.
+     */
+    public void setChangeTick(int changeTick) {
+        int current = this.changeTick;
+        while (changeTick > current && !CHANGE_TICK.weakCompareAndSet(this, current, changeTick)) {
+            current = this.changeTick;
+        }
+    }
+
+    /**
+     * Grows the storage so that the given number of transforms can be attached without reallocating
+     */
+    public void reserve(int additional) {
+        ensureCapacity(size + additional);
+    }
+
+    /**
+     * Moves the transform data into this store. The handle stays valid and keeps its values.
+     */
+    public void attach(Transform transform) {
+        TransformStore previous = transform.store;
+        if (previous == this) {
+            return;
+        }
+        int previousIndex = transform.index;
+        int index = add(transform);
+        copy(previous, previousIndex, this, index);
+        previous.remove(previousIndex);
+        transform.store = this;
+        transform.index = index;
+    }
+
+    /**
+     * Moves the transform data out of this store into a private store of the handle.
+     */
+    public void detach(Transform transform) {
+        if (transform.store != this) {
+            return;
+        }
+        new TransformStore(1).attach(transform);
+    }
+
+    /**
+     * Moves the data of every transform out of this store into one new store, leaving this store empty.
+     * The handles stay valid and keep their values.
+     */
+    public void detachAll() {
+        TransformStore detached = new TransformStore(size);
+        for (int i = 0; i < size; i++) {
+            copy(this, i, detached, i);
+            detached.handles[i] = handles[i];
+            handles[i].store = detached;
+        }
+        detached.size = size;
+        Arrays.fill(handles, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Recomputes the transformation matrix of every changed transform in one linear pass.
+     *
+     * @param scratch matrix used for the calculation
+     */
+    public void calculateTransformationMatrices(Matrix4f scratch) {
+        for (int i = 0; i < size; i++) {
+            if (matrixDirty[i]) {
+                calculateTransformationMatrix(i, scratch);
+            }
+        }
+    }
+
+    /**
+     * Loads the transformation matrix of one slot into the destination, recalculating it only if the slot changed.
+     */
+    Matrix4f calculateTransformationMatrix(int index, Matrix4f dest) {
+        if (!matrixDirty[index]) {
+            return dest.set(matrices, index * MATRIX_SIZE);
+        }
+        dest.translationRotateScale(positionX[index], positionY[index], positionZ[index],
+            rotationX[index], rotationY[index], rotationZ[index], rotationW[index], scale[index]);
+        dest.get(matrices, index * MATRIX_SIZE);
+        matrixDirty[index] = false;
+        return dest;
+    }
+
+    /**
+     * Calculates the world matrix of a slot into the destination and the packed world matrix array,
+     * if the slot changed or the world matrix of its parent was recalculated since the slot was last calculated.
+     * The parent is tracked by its world version, so a root recalculated on demand between two hierarchy passes
+     * still invalidates its children.
+     *
+     * @param parent        parent transform or null for roots, its world matrix must be up to date
+     * @param parentChanged whether the world matrix of the parent was recalculated
+     * @return true if the world matrix was recalculated
+     */
+    boolean calculateWorldMatrix(int index, Transform parent, boolean parentChanged, Matrix4f dest) {
+        int parentVersion = parent == null ? 0 : parent.store.worldVersions[parent.index];
+        if (!worldDirty[index] && !parentChanged && parentWorldVersions[index] == parentVersion) {
+            return false;
+        }
+        calculateTransformationMatrix(index, dest);
+        if (parent != null) {
+            dest.mulLocal(parent.getWorldMatrix());
+        }
+        dest.get(worldMatrices, index * MATRIX_SIZE);
+        worldDirty[index] = false;
+        worldVersions[index]++;
+        // read again, a root parent may have been recalculated by getWorldMatrix()
+        parentWorldVersions[index] = parent == null ? 0 : parent.store.worldVersions[parent.index];
+        return true;
+    }
+
+    /**
+     * Invalidates the cached matrix of the slot and stamps it with the current change tick
+     */
+    void markChanged(int index) {
+        matrixDirty[index] = true;
+        worldDirty[index] = true;
+        changeTicks[index] = changeTick;
+    }
+
+    /**
+     * Appends a slot for the handle
+     *
+     * @return index of the new slot
+     */
+    int add(Transform handle) {
+        ensureCapacity(size + 1);
+        handles[size] = handle;
+        matrixDirty[size] = true;
+        worldDirty[size] = true;
+        return size++;
+    }
+
+    /**
+     * Removes a slot by moving the last slot into its place and re-pointing the moved handle.
+     */
+    private void remove(int index) {
+        int last = size - 1;
+        if (index != last) {
+            copy(this, last, this, index);
+            handles[index] = handles[last];
+            handles[index].index = index;
+        }
+        handles[last] = null;
+        size--;
+    }
+
+    private static void copy(TransformStore from, int fromIndex, TransformStore to, int toIndex) {
+        to.positionX[toIndex] = from.positionX[fromIndex];
+        to.positionY[toIndex] = from.positionY[fromIndex];
+        to.positionZ[toIndex] = from.positionZ[fromIndex];
+        to.rotationX[toIndex] = from.rotationX[fromIndex];
+        to.rotationY[toIndex] = from.rotationY[fromIndex];
+        to.rotationZ[toIndex] = from.rotationZ[fromIndex];
+        to.rotationW[toIndex] = from.rotationW[fromIndex];
+        to.scale[toIndex] = from.scale[fromIndex];
+        System.arraycopy(from.matrices, fromIndex * MATRIX_SIZE, to.matrices, toIndex * MATRIX_SIZE, MATRIX_SIZE);
+        to.matrixDirty[toIndex] = from.matrixDirty[fromIndex];
+        System.arraycopy(from.worldMatrices, fromIndex * MATRIX_SIZE, to.worldMatrices, toIndex * MATRIX_SIZE,
+            MATRIX_SIZE);
+        to.worldDirty[toIndex] = from.worldDirty[fromIndex];
+        to.worldVersions[toIndex] = from.worldVersions[fromIndex];
+        to.parentWorldVersions[toIndex] = from.parentWorldVersions[fromIndex];
+        to.changeTicks[toIndex] = from.changeTicks[fromIndex];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= handles.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, handles.length * 2);
+        positionX = Arrays.copyOf(positionX, newCapacity);
+        positionY = Arrays.copyOf(positionY, newCapacity);
+        positionZ = Arrays.copyOf(positionZ, newCapacity);
+        rotationX = Arrays.copyOf(rotationX, newCapacity);
+        rotationY = Arrays.copyOf(rotationY, newCapacity);
+        rotationZ = Arrays.copyOf(rotationZ, newCapacity);
+        rotationW = Arrays.copyOf(rotationW, newCapacity);
+        scale = Arrays.copyOf(scale, newCapacity);
+        matrices = Arrays.copyOf(matrices, newCapacity * MATRIX_SIZE);
+        matrixDirty = Arrays.copyOf(matrixDirty, newCapacity);
+        worldMatrices = Arrays.copyOf(worldMatrices, newCapacity * MATRIX_SIZE);
+        worldDirty = Arrays.copyOf(worldDirty, newCapacity);
+        worldVersions = Arrays.copyOf(worldVersions, newCapacity);
+        parentWorldVersions = Arrays.copyOf(parentWorldVersions, newCapacity);
+        changeTicks = Arrays.copyOf(changeTicks, newCapacity);
+        handles = Arrays.copyOf(handles, newCapacity);
+    }
+}
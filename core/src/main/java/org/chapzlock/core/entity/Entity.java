@@ -1,10 +1,24 @@
 package org.chapzlock.core.entity;
 
+import org.chapzlock.core.registry.ComponentRegistry;
+
 public class Entity {
     private Entity() {
     }
 
     public static int create() {
-        return EntityIdGenerator.nextId();
+        return ComponentRegistry.instance().createEntity();
+    }
+
+    /**
+     * Removes all components of the entity and frees its Id for reuse.
+     * Handles to the destroyed entity stay invalid even after the Id is reused.
+     */
+    public static void destroy(int id) {
+        ComponentRegistry.instance().destroyEntity(id);
+    }
+
+    public static boolean isAlive(int id) {
+        return ComponentRegistry.instance().isAlive(id);
     }
 }
@@ -1,15 +1,170 @@
 package org.chapzlock.core.entity;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
- * Generates Id-s for entities for the entire lifecycle of the application
+ * Generates Id-s for entities and recycles the Id-s of destroyed entities.
  * Guarantees thread safe ID generation.
+ * <p>
+ * An Id packs two numbers: the lower {@value #INDEX_BITS} bits are a dense index that storage can use
+ * as an array offset, the remaining bits are a generation counter that is bumped every time the index is recycled.
+ * A handle to a destroyed entity therefore never matches the entity that reuses its index.
+ * Recycled indices are handed out in FIFO order to delay generation wrap-around.
  */
 public class EntityIdGenerator {
-    private static final AtomicInteger sequence = new AtomicInteger(0);
+    public static final int INDEX_BITS = 20;
+    public static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    public static final int MAX_ENTITIES = INDEX_MASK;
+    private static final int GENERATION_MASK = (1 << (Integer.SIZE - 1 - INDEX_BITS)) - 1;
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * Marks alive indices in written generator state, above all generation bits
+     */
+    private static final int ALIVE_FLAG = 1 << (Integer.SIZE - 1 - INDEX_BITS);
 
-    public static int nextId() {
-        return sequence.incrementAndGet();
+    /**
+     * Current generation of every index
+     */
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private boolean[] alive = new boolean[INITIAL_CAPACITY];
+    /**
+     * Index 0 is never handed out, so an Id of 0 is never a valid entity
+     */
+    private int nextIndex = 1;
+
+    /**
+     * Ring buffer of released indices
+     */
+    private int[] freeIndices = new int[INITIAL_CAPACITY];
+    private int freeHead;
+    private int freeCount;
+
+    /**
+     * @return a new entity Id, reusing the index of a destroyed entity when possible
+     */
+    public synchronized int nextId() {
+        int index;
+        if (freeCount > 0) {
+            index = freeIndices[freeHead];
+            freeHead = (freeHead + 1) % freeIndices.length;
+            freeCount--;
+        } else {
+            if (nextIndex > MAX_ENTITIES) {
+                throw new IllegalStateException("Entity limit of " + MAX_ENTITIES + " reached");
+            }
+            index = nextIndex++;
+            ensureCapacity(index);
+        }
+        alive[index] = true;
+        return toId(index, generations[index]);
+    }
+
+    /**
+     * Hands out many Id-s at once, taking the lock only once
+     *
+     * @return new entity Id-s
+     */
+    public synchronized int[] nextIds(int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = nextId();
+        }
+        return ids;
+    }
+
+    /**
+     * Releases the Id so that its index can be reused with a new generation.
+     *
+     * @return false if the Id was not alive
+     */
+    public synchronized boolean release(int id) {
+        if (!isAlive(id)) {
+            return false;
+        }
+        int index = index(id);
+        alive[index] = false;
+        generations[index] = (generations[index] + 1) & GENERATION_MASK;
+        if (freeCount == freeIndices.length) {
+            int[] grown = new int[freeIndices.length * 2];
+            for (int i = 0; i < freeCount; i++) {
+                grown[i] = freeIndices[(freeHead + i) % freeIndices.length];
+            }
+            freeIndices = grown;
+            freeHead = 0;
+        }
+        freeIndices[(freeHead + freeCount) % freeIndices.length] = index;
+        freeCount++;
+        return true;
+    }
+
+    /**
+     * @return true if the Id belongs to an entity that has not been destroyed
+     */
+    public synchronized boolean isAlive(int id) {
+        int index = index(id);
+        return id > 0 && index < nextIndex && alive[index] && generations[index] == generation(id);
+    }
+
+    /**
+     * Writes the generation of every index, which indices are alive and the queue of free indices,
+     * so that {@link #read(ByteBuffer)} restores the exact same Id-s.
+     */
+    public synchronized void write(ByteBuffer buffer) {
+        buffer.putInt(nextIndex);
+        for (int index = 0; index < nextIndex; index++) {
+            buffer.putInt(alive[index] ? generations[index] | ALIVE_FLAG : generations[index]);
+        }
+        buffer.putInt(freeCount);
+        for (int i = 0; i < freeCount; i++) {
+            buffer.putInt(freeIndices[(freeHead + i) % freeIndices.length]);
+        }
+    }
+
+    /**
+     * Replaces the state of the generator with the state written by {@link #write(ByteBuffer)}
+     */
+    public synchronized void read(ByteBuffer buffer) {
+        nextIndex = buffer.getInt();
+        ensureCapacity(nextIndex - 1);
+        Arrays.fill(alive, false);
+        for (int index = 0; index < nextIndex; index++) {
+            int state = buffer.getInt();
+            generations[index] = state & GENERATION_MASK;
+            alive[index] = (state & ALIVE_FLAG) != 0;
+        }
+        freeCount = buffer.getInt();
+        freeHead = 0;
+        freeIndices = new int[Math.max(INITIAL_CAPACITY, freeCount)];
+        for (int i = 0; i < freeCount; i++) {
+            freeIndices[i] = buffer.getInt();
+        }
+    }
+
+    /**
+     * @return the dense storage index of the entity
+     */
+    public static int index(int id) {
+        return id & INDEX_MASK;
+    }
+
+    /**
+     * @return how many times the index of the entity has been recycled (wraps around)
+     */
+    public static int generation(int id) {
+        return (id >>> INDEX_BITS) & GENERATION_MASK;
+    }
+
+    private static int toId(int index, int generation) {
+        return (generation << INDEX_BITS) | index;
+    }
+
+    private void ensureCapacity(int index) {
+        if (index < generations.length) {
+            return;
+        }
+        int newCapacity = Math.min(Math.max(index + 1, generations.length * 2), MAX_ENTITIES + 1);
+        generations = Arrays.copyOf(generations, newCapacity);
+        alive = Arrays.copyOf(alive, newCapacity);
     }
 }
@@ -9,11 +9,11 @@ import lombok.Getter;
  */
 public class EntityView {
     @Getter
-    private final int id;
+    private int id;
     private final Class<? extends Component>[] types;
     private final Component[] components;
 
-    private EntityView(int id, Class<? extends Component>[] types, Component[] components) {
+    protected EntityView(int id, Class<? extends Component>[] types, Component[] components) {
         this.id = id;
         this.types = types;
         this.components = components;
@@ -23,6 +23,14 @@ public class EntityView {
         return new EntityView(id, types, components);
     }
 
+    /**
+     * Points a reusable view at another entity. The components array given to the constructor
+     * must be refilled by the caller.
+     */
+    protected void setId(int id) {
+        this.id = id;
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends Component> T get(Class<T> type) {
         for (int i = 0; i < types.length; i++) {
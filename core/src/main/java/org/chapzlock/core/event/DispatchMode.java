@@ -0,0 +1,16 @@
+package org.chapzlock.core.event;
+
+/**
+ * How {@link EventBus#post(Event)} delivers events
+ */
+public enum DispatchMode {
+    /**
+     * Events are dispatched immediately on the posting thread, like {@link EventBus#publish(Event)}
+     */
+    SYNCHRONOUS,
+    /**
+     * Events are queued and dispatched on the main thread at {@link EventBus#dispatchQueued()},
+     * once per frame by the application
+     */
+    QUEUED
+}
@@ -2,6 +2,8 @@ package org.chapzlock.core.event;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
@@ -9,6 +11,8 @@ import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import org.chapzlock.core.logging.Log;
@@ -16,7 +20,7 @@ import org.chapzlock.core.logging.Log;
 import lombok.NonNull;
 
 /**
- * Thread-safe, synchronous event bus for in-process event dispatch.
+ * Thread-safe event bus for in-process event dispatch.
  *
  * <p>This implementation is optimized for:
  * <ul>
@@ -26,12 +30,20 @@ import lombok.NonNull;
  *
  * <p>It achieves this by:
  * <ul>
- *   <li>Storing listeners in {@link CopyOnWriteArrayList}s (lock-free iteration)</li>
- *   <li>Caching the full type hierarchy of event classes using {@link ClassValue}</li>
- *   <li>Supporting predicate-based filtering and short-circuit propagation</li>
+ *   <li>Compiling, per concrete event class, one flat array with the listeners of its whole type hierarchy,
+ *   cached in a {@link ClassValue} and rebuilt lazily after listeners changed</li>
+ *   <li>Supporting predicate-based filtering, priorities and short-circuit propagation</li>
  *   <li>Providing {@link Subscription} handles for safe unsubscription</li>
  * </ul>
  *
+ * <p>{@link #publish(Event)} always dispatches synchronously on the calling thread. {@link #post(Event)} follows the
+ * {@link DispatchMode} of the bus: in {@link DispatchMode#QUEUED} mode events are put into a lock-free ring buffer
+ * from any thread and dispatched on the main thread when the application calls {@link #dispatchQueued()}
+ * once per frame, so listener work does not run inside window callbacks or on producer threads. Queued events of
+ * types with an {@link EventCoalescer} are merged, see {@link #setCoalescer(Class, EventCoalescer)}.
+ * {@link PooledEvent}s handed to {@link #publish(Event)} or {@link #post(Event)} are released to their pool once they
+ * have been dispatched.
+ *
  * <p>Usage example:
  * <pre>{@code
  * EventBus bus = EventBus.instance();
@@ -50,7 +62,15 @@ import lombok.NonNull;
  * }</pre>
  */
 public final class EventBus {
+    /**
+     * Priority of listeners subscribed without one
+     */
+    public static final int DEFAULT_PRIORITY = 0;
     private static final EventBus INSTANCE = new EventBus();
+    private static final Comparator<ListenerHolder> BY_PRIORITY =
+        Comparator.comparingInt(ListenerHolder::priority).reversed();
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final ListenerHolder[] NO_LISTENERS = new ListenerHolder[0];
     /**
      * Cache of dispatch order (class hierarchy + interfaces) for each event class.
      */
@@ -65,12 +85,47 @@ public final class EventBus {
      * Mapping of event type → list of listener holders.
      */
     private final ConcurrentMap<Class<? extends Event>, CopyOnWriteArrayList<ListenerHolder>> listenersByEventType = new ConcurrentHashMap<>();
+    /**
+     * Incremented after every change of the listeners, dispatch tables compiled for an older version are stale
+     */
+    private final AtomicInteger listenerVersion = new AtomicInteger();
+    /**
+     * Compiled dispatch table of every published event class
+     */
+    private final ClassValue<DispatchTable> dispatchTables = new ClassValue<>() {
+        @Override
+        protected DispatchTable computeValue(@NonNull Class<?> type) {
+            return new DispatchTable(EVENT_DISPATCH_ORDER_CACHE.get(type));
+        }
+    };
+    private final EventQueue queue = new EventQueue(QUEUE_CAPACITY);
+    private volatile DispatchMode dispatchMode = DispatchMode.SYNCHRONOUS;
+    private final ConcurrentMap<Class<? extends Event>, EventCoalescer<Event>> coalescers = new ConcurrentHashMap<>();
+    private final Consumer<Event> queuedEventDispatcher = this::dispatchQueuedEvent;
+    /**
+     * Merged events waiting for dispatch while draining the queue, in order of their first occurrence.
+     * Only touched by the thread calling {@link #dispatchQueued()}.
+     */
+    private Event[] coalesced = new Event[8];
+    private int coalescedCount;
 
     private EventBus() {
     }
 
+    public DispatchMode getDispatchMode() {
+        return dispatchMode;
+    }
+
     /**
-     * Subscribes a listener to a specific event type.
+     * Changes how {@link #post(Event)} delivers events. Events queued before switching to
+     * {@link DispatchMode#SYNCHRONOUS} are still dispatched at the next {@link #dispatchQueued()}.
+     */
+    public void setDispatchMode(@NonNull DispatchMode dispatchMode) {
+        this.dispatchMode = dispatchMode;
+    }
+
+    /**
+     * Subscribes a listener to a specific event type with {@link #DEFAULT_PRIORITY}.
      *
      * @param eventClass The event class to listen for.
      * @param listener   The listener callback.
@@ -78,11 +133,26 @@ public final class EventBus {
      * @return A {@link Subscription} handle for later unsubscription.
      */
     public <T extends Event> Subscription subscribe(Class<T> eventClass, EventListener<? super T> listener) {
-        return subscribe(eventClass, listener, e -> true);
+        return subscribe(eventClass, listener, e -> true, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Subscribes a listener with a priority, e.g. so that a UI overlay can consume input before gameplay listeners.
+     *
+     * @param eventClass The event class to listen for.
+     * @param listener   The listener callback.
+     * @param priority   Higher values run first, {@link #DEFAULT_PRIORITY} is 0 and negative values run after
+     *                   listeners without a priority, see {@link #subscribe(Class, EventListener, Predicate, int)}.
+     * @param <T>        The event type.
+     * @return A {@link Subscription} handle for later unsubscription.
+     */
+    public <T extends Event> Subscription subscribe(Class<T> eventClass, EventListener<? super T> listener,
+                                                    int priority) {
+        return subscribe(eventClass, listener, e -> true, priority);
     }
 
     /**
-     * Subscribes a listener with a predicate filter.
+     * Subscribes a listener with a predicate filter and {@link #DEFAULT_PRIORITY}.
      * The listener will only receive events for which {@code filter.test(event)} returns true.
      *
      * @param eventClass The event class to listen for.
@@ -91,11 +161,35 @@ public final class EventBus {
      * @param <T>        The event type.
      * @return A {@link Subscription} handle for later unsubscription.
      */
-    @SuppressWarnings("unchecked")
     public <T extends Event> Subscription subscribe(
         Class<T> eventClass,
         EventListener<? super T> listener,
         Predicate<? super T> filter) {
+        return subscribe(eventClass, listener, filter, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Subscribes a listener with a predicate filter and a priority.
+     * <p>
+     * Listeners of an event are dispatched by descending priority, higher values run first, across the whole type
+     * hierarchy of the event, so a listener returning {@code true} stops every listener with a lower priority.
+     * Ties are broken by the hierarchy order (listeners of the event class first, then of its superclasses, then of
+     * interfaces) and then by subscription order.
+     * The order is part of the compiled dispatch table and costs nothing per publish.
+     *
+     * @param eventClass The event class to listen for.
+     * @param listener   The listener callback.
+     * @param filter     A filter determining whether to receive a specific event.
+     * @param priority   Higher values run first, {@link #DEFAULT_PRIORITY} is 0.
+     * @param <T>        The event type.
+     * @return A {@link Subscription} handle for later unsubscription.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Event> Subscription subscribe(
+        Class<T> eventClass,
+        EventListener<? super T> listener,
+        Predicate<? super T> filter,
+        int priority) {
 
         Objects.requireNonNull(eventClass, "eventClass");
         Objects.requireNonNull(listener, "listener");
@@ -104,11 +198,13 @@ public final class EventBus {
         int id = EventListenerIdGenerator.nextId();
         ListenerHolder holder = new ListenerHolder(id,
             (EventListener<Event>) listener,
-            (Predicate<Event>) filter);
+            (Predicate<Event>) filter,
+            priority);
 
         listenersByEventType
             .computeIfAbsent(eventClass, k -> new CopyOnWriteArrayList<>())
             .add(holder);
+        listenerVersion.incrementAndGet();
 
         return new Subscription(this, id, eventClass);
     }
@@ -116,8 +212,10 @@ public final class EventBus {
     /**
      * Publishes an event synchronously to all listeners.
      *
-     * <p>Listeners are invoked in order of the event class hierarchy (superclasses first),
-     * followed by implemented interfaces.
+     * <p>Listeners are invoked by descending priority, higher values first, regardless of which type of the event
+     * hierarchy they subscribed to. Listeners with equal priority are invoked in hierarchy order (the event class,
+     * then its superclasses, then implemented interfaces) and, for the same type, in subscription order.
+     * The bus takes ownership of {@link PooledEvent}s and releases them after the dispatch.
      *
      * @param event The event to publish. If {@code null}, the call is ignored.
      * @return {@code true} if any listener returned {@code true} to stop propagation.
@@ -126,30 +224,161 @@ public final class EventBus {
         if (event == null) {
             return false;
         }
+        try {
+            return dispatch(event);
+        } finally {
+            release(event);
+        }
+    }
 
-        final Class<?>[] dispatchOrder = EVENT_DISPATCH_ORDER_CACHE.get(event.getClass());
+    private boolean dispatch(Event event) {
+        for (ListenerHolder holder : compiledListeners(event.getClass())) {
+            try {
+                if (!holder.filter().test(event)) {
+                    continue;
+                }
+                if (holder.listener().onEvent(event)) {
+                    return true;
+                }
+            } catch (Exception ex) {
+                // prefer a logger overload that accepts the throwable if available
+                Log.error("EventBus listener failed for " + event.getClass().getSimpleName() + ". Error: " + ex);
+            }
+        }
+        return false;
+    }
 
+    /**
+     * Sets the policy merging queued events of exactly the given class, replacing the previous one.
+     * While {@link #dispatchQueued()} drains the queue, consecutive events of coalesced types are merged and
+     * dispatched once, right before the next event of a type without a coalescer or at the end of the drain.
+     * Events are never reordered relative to events of types without a coalescer, so per frame dispatch cost depends
+     * on the number of event types instead of the number of events. Synchronous dispatch is not affected.
+     *
+     * @param coalescer the policy, or {@code null} to dispatch every event of the class
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Event> void setCoalescer(Class<T> eventClass, EventCoalescer<T> coalescer) {
+        Objects.requireNonNull(eventClass, "eventClass");
+        if (coalescer == null) {
+            coalescers.remove(eventClass);
+        } else {
+            coalescers.put(eventClass, (EventCoalescer<Event>) coalescer);
+        }
+    }
+
+    /**
+     * Delivers an event according to the {@link DispatchMode} of the bus: publishes it immediately or queues it
+     * for the next {@link #dispatchQueued()}. Queuing is lock-free and safe from any thread.
+     * The bus takes ownership of {@link PooledEvent}s and releases them after their dispatch.
+     *
+     * @param event The event to post. If {@code null}, the call is ignored.
+     * @return {@code false} if the event was dropped because the queue is full
+     */
+    public boolean post(final Event event) {
+        if (event == null) {
+            return true;
+        }
+        if (dispatchMode == DispatchMode.SYNCHRONOUS) {
+            publish(event);
+            return true;
+        }
+        if (!queue.offer(event)) {
+            Log.error("EventBus queue is full, dropping " + event.getClass().getSimpleName());
+            release(event);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Publishes the events queued by {@link #post(Event)}, in the order they were queued.
+     * Events posted by listeners during the dispatch are kept for the next call.
+     * Must only be called by one thread, the application calls it once per frame after polling window events.
+     *
+     * @return number of dispatched events
+     */
+    public int dispatchQueued() {
+        int drained = queue.drain(queuedEventDispatcher);
+        flushCoalesced();
+        return drained;
+    }
+
+    private void dispatchQueuedEvent(Event event) {
+        EventCoalescer<Event> coalescer = coalescers.get(event.getClass());
+        if (coalescer == null) {
+            flushCoalesced();
+            publish(event);
+            return;
+        }
+        for (int i = 0; i < coalescedCount; i++) {
+            if (coalesced[i].getClass() == event.getClass()) {
+                Event pending = coalesced[i];
+                Event merged = coalescer.coalesce(pending, event);
+                if (merged != pending) {
+                    release(pending);
+                }
+                if (merged != event) {
+                    release(event);
+                }
+                coalesced[i] = merged;
+                return;
+            }
+        }
+        if (coalescedCount == coalesced.length) {
+            coalesced = Arrays.copyOf(coalesced, coalescedCount * 2);
+        }
+        coalesced[coalescedCount++] = event;
+    }
+
+    private void flushCoalesced() {
+        for (int i = 0; i < coalescedCount; i++) {
+            Event event = coalesced[i];
+            coalesced[i] = null;
+            publish(event);
+        }
+        coalescedCount = 0;
+    }
+
+    /**
+     * @return the listeners of the event class and all its supertypes in dispatch order, compiled on first use
+     * and again after listeners changed
+     */
+    private ListenerHolder[] compiledListeners(Class<?> eventClass) {
+        DispatchTable table = dispatchTables.get(eventClass);
+        CompiledListeners compiled = table.compiled;
+        int version = listenerVersion.get();
+        if (compiled == null || compiled.version() != version) {
+            compiled = new CompiledListeners(version, compile(table.dispatchOrder));
+            table.compiled = compiled;
+        }
+        return compiled.holders();
+    }
+
+    private ListenerHolder[] compile(Class<?>[] dispatchOrder) {
+        List<ListenerHolder> holders = null;
         for (Class<?> type : dispatchOrder) {
             var listenerHolders = listenersByEventType.get(type);
             if (listenerHolders == null) {
                 continue;
             }
-
-            for (ListenerHolder holder : listenerHolders) {
-                try {
-                    if (!holder.filter().test(event)) {
-                        continue;
-                    }
-                    if (holder.listener().onEvent(event)) {
-                        return true;
-                    }
-                } catch (Exception ex) {
-                    // prefer a logger overload that accepts the throwable if available
-                    Log.error("EventBus listener failed for " + event.getClass().getSimpleName() + ". Error: " + ex);
-                }
+            if (holders == null) {
+                holders = new ArrayList<>();
             }
+            holders.addAll(listenerHolders);
+        }
+        if (holders == null) {
+            return NO_LISTENERS;
+        }
+        // stable, listeners of equal priority keep the dispatch order
+        holders.sort(BY_PRIORITY);
+        return holders.toArray(NO_LISTENERS);
+    }
+
+    private static void release(Event event) {
+        if (event instanceof PooledEvent pooledEvent) {
+            pooledEvent.release();
         }
-        return false;
     }
 
     /**
@@ -168,6 +397,7 @@ public final class EventBus {
         if (list.isEmpty()) {
             listenersByEventType.remove(eventClass, list);
         }
+        listenerVersion.incrementAndGet();
     }
 
     /**
@@ -177,6 +407,7 @@ public final class EventBus {
      */
     public void clearListenersFor(final Class<? extends Event> eventClass) {
         listenersByEventType.remove(eventClass);
+        listenerVersion.incrementAndGet();
     }
 
     /**
@@ -184,6 +415,7 @@ public final class EventBus {
      */
     public void clearAllListeners() {
         listenersByEventType.clear();
+        listenerVersion.incrementAndGet();
     }
 
     public static EventBus instance() {
@@ -215,4 +447,22 @@ public final class EventBus {
         }
         return new ArrayList<>(ordered);
     }
+
+    /**
+     * Dispatch state of one concrete event class
+     */
+    private static final class DispatchTable {
+        private final Class<?>[] dispatchOrder;
+        private volatile CompiledListeners compiled;
+
+        DispatchTable(Class<?>[] dispatchOrder) {
+            this.dispatchOrder = dispatchOrder;
+        }
+    }
+
+    /**
+     * Flattened listeners of a dispatch table, valid while the listener version is unchanged
+     */
+    private record CompiledListeners(int version, ListenerHolder[] holders) {
+    }
 }
@@ -0,0 +1,25 @@
+package org.chapzlock.core.event;
+
+/**
+ * Merges queued events of one type, so that high frequency events are dispatched once per frame.
+ * See {@link EventBus#setCoalescer(Class, EventCoalescer)}.
+ *
+ * @param <T> The type of events merged.
+ */
+@FunctionalInterface
+public interface EventCoalescer<T extends Event> {
+
+    /**
+     * @param pending the event waiting for dispatch, possibly already merged
+     * @param next    the event queued after it
+     * @return the single event replacing both
+     */
+    T coalesce(T pending, T next);
+
+    /**
+     * Policy for events carrying absolute state, like cursor positions: only the latest event is dispatched
+     */
+    static <T extends Event> EventCoalescer<T> keepLast() {
+        return (pending, next) -> next;
+    }
+}
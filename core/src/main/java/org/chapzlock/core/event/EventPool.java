@@ -0,0 +1,61 @@
+package org.chapzlock.core.event;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe pool of reusable event instances of one type, see {@link PooledEvent}.
+ *
+ * @param <T> The type of pooled events.
+ */
+public final class EventPool<T extends PooledEvent> {
+    private static final int MAX_FREE_EVENTS = 1024;
+    private static volatile boolean retentionChecks;
+
+    private final Supplier<T> factory;
+    private final PooledEvent[] free = new PooledEvent[MAX_FREE_EVENTS];
+    private int freeCount;
+
+    /**
+     * @param factory creates an instance owned by this pool when no free instance is left
+     */
+    public EventPool(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Safety mode for development: released events are not reused, so listeners that retain a pooled event fail
+     * with an {@link IllegalStateException} when they access it later instead of silently reading another event.
+     */
+    public static void setRetentionChecks(boolean enabled) {
+        retentionChecks = enabled;
+    }
+
+    public static boolean isRetentionChecks() {
+        return retentionChecks;
+    }
+
+    /**
+     * @return a free instance, whose values must be set before it is posted
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        T event;
+        synchronized (this) {
+            event = freeCount > 0 ? (T) free[--freeCount] : null;
+            if (event != null) {
+                free[freeCount] = null;
+            }
+        }
+        if (event == null) {
+            event = factory.get();
+        }
+        event.acquired();
+        return event;
+    }
+
+    synchronized void release(PooledEvent event) {
+        if (!retentionChecks && freeCount < free.length) {
+            free[freeCount++] = event;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.chapzlock.core.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer of events with many producers and a single consumer.
+ * <p>
+ * Every slot carries a sequence number telling whether it is free for the producer of a position or holds an event
+ * for the consumer, so producers only contend on one compare-and-set of the tail and never block each other.
+ */
+final class EventQueue {
+    private final Event[] events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * Next position to consume, only touched by the consumer
+     */
+    private long head;
+
+    EventQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Event queue capacity must be a power of two, got " + capacity);
+        }
+        events = new Event[capacity];
+        sequences = new AtomicLongArray(capacity);
+        mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Enqueues the event, safe to call from any thread
+     *
+     * @return false if the queue is full
+     */
+    boolean offer(Event event) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long difference = sequences.getAcquire(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events[slot] = event;
+                    sequences.setRelease(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Passes the events enqueued before the call to the consumer, in order. Events enqueued by the consumer itself
+     * stay queued for the next drain. Must only be called by one thread at a time.
+     *
+     * @return number of events drained
+     */
+    int drain(Consumer<Event> consumer) {
+        long end = tail.get();
+        int drained = 0;
+        while (head < end) {
+            int slot = (int) head & mask;
+            if (sequences.getAcquire(slot) != head + 1) {
+                // a producer claimed the position but has not stored its event yet
+                break;
+            }
+            Event event = events[slot];
+            events[slot] = null;
+            sequences.setRelease(slot, head + mask + 1);
+            head++;
+            drained++;
+            consumer.accept(event);
+        }
+        return drained;
+    }
+}
@@ -8,6 +8,7 @@ import java.util.function.Predicate;
  * @param id       The unique listener ID.
  * @param listener The listener callback.
  * @param filter   The filter determining whether this listener should handle an event.
+ * @param priority Dispatch priority, higher values are dispatched first.
  */
-record ListenerHolder(int id, EventListener<Event> listener, Predicate<Event> filter) {
+record ListenerHolder(int id, EventListener<Event> listener, Predicate<Event> filter, int priority) {
 }
@@ -0,0 +1,49 @@
+package org.chapzlock.core.event;
+
+/**
+ * Mutable event instance that is recycled through an {@link EventPool} once it has been dispatched.
+ * <p>
+ * Pooled events are obtained from static factories of the event classes and handed to {@link EventBus#post(Event)} or
+ * {@link EventBus#publish(Event)}, which release them after every listener has seen them. Listeners must copy the values they need instead of
+ * keeping the event: accessors throw {@link IllegalStateException} on released events, and with
+ * {@link EventPool#setRetentionChecks(boolean)} enabled released events are never reused,
+ * so any retained reference fails on its next access.
+ */
+public abstract class PooledEvent implements Event {
+    private final EventPool<?> pool;
+    /**
+     * Volatile, events are released on the dispatching thread while listeners on other threads may still check it
+     */
+    private volatile boolean released;
+
+    protected PooledEvent(EventPool<?> pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Called by accessors of subclasses before reading a value
+     *
+     * @throws IllegalStateException if the event has already been dispatched and released
+     */
+    protected final void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException(getClass().getSimpleName()
+                + " was accessed after its dispatch, listeners must not keep references to pooled events");
+        }
+    }
+
+    /**
+     * Returns the event to its pool, does nothing if it has already been released
+     */
+    final void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        pool.release(this);
+    }
+
+    final void acquired() {
+        released = false;
+    }
+}
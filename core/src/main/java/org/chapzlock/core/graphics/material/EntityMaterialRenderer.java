@@ -9,6 +9,7 @@ import static org.chapzlock.core.graphics.shader.EntityShaderProps.UNIFORM_TEXTU
 import static org.chapzlock.core.graphics.shader.EntityShaderProps.UNIFORM_TRANSFORMATION_MATRIX;
 import static org.chapzlock.core.graphics.shader.EntityShaderProps.UNIFORM_VIEW_MATRIX;
 
+import org.chapzlock.core.application.FrameArena;
 import org.chapzlock.core.component.Camera;
 import org.chapzlock.core.component.Material;
 import org.chapzlock.core.component.PointLight;
@@ -16,7 +17,6 @@ import org.chapzlock.core.component.Shader;
 import org.chapzlock.core.component.Sky;
 import org.chapzlock.core.component.Texture;
 import org.chapzlock.core.component.Transform;
-import org.chapzlock.core.entity.EntityView;
 import org.chapzlock.core.graphics.shader.EntityShaderProps;
 import org.chapzlock.core.system.CameraSystem;
 import org.chapzlock.core.system.ShaderSystem;
@@ -46,8 +46,10 @@ public class EntityMaterialRenderer implements MaterialRenderer {
 
         shaderSystem.setUniform(shader, UNIFORM_SHINE_DAMPER, material.getReflection().getShineDamper());
         shaderSystem.setUniform(shader, UNIFORM_REFLECTIVITY, material.getReflection().getReflectivity());
-        shaderSystem.setUniform(shader, UNIFORM_VIEW_MATRIX, cameraSystem.calculateViewMatrix(camera));
-        shaderSystem.setUniform(shader, UNIFORM_PROJECTION_MATRIX, cameraSystem.calculateProjectionMatrix(camera));
+        FrameArena arena = FrameArena.current();
+        shaderSystem.setUniform(shader, UNIFORM_VIEW_MATRIX, cameraSystem.calculateViewMatrix(camera, arena.matrix4f()));
+        shaderSystem.setUniform(shader, UNIFORM_PROJECTION_MATRIX,
+            cameraSystem.calculateProjectionMatrix(camera, arena.matrix4f()));
         if (light != null) {
             shaderSystem.setUniform(shader, UNIFORM_LIGHT_POSITION, light.position());
             shaderSystem.setUniform(shader, UNIFORM_LIGHT_COLOR, light.color().toVector3f());
@@ -55,9 +57,8 @@ public class EntityMaterialRenderer implements MaterialRenderer {
     }
 
     @Override
-    public void prepareEntity(EntityView entity, Material material) {
-        shaderSystem.setUniform(material.getShader(), UNIFORM_TRANSFORMATION_MATRIX, entity.get(Transform.class)
-            .calculateTransformationMatrix());
+    public void prepareEntity(Transform transform, Material material) {
+        shaderSystem.setUniform(material.getShader(), UNIFORM_TRANSFORMATION_MATRIX, transform.getWorldMatrix());
     }
 
     @Override
@@ -4,7 +4,7 @@ import org.chapzlock.core.component.Camera;
 import org.chapzlock.core.component.Material;
 import org.chapzlock.core.component.PointLight;
 import org.chapzlock.core.component.Sky;
-import org.chapzlock.core.entity.EntityView;
+import org.chapzlock.core.component.Transform;
 
 /**
  * After creating a new material you need to provide instructions for the render system to render it
@@ -21,7 +21,7 @@ public interface MaterialRenderer {
     /**
      * Prepare a single entity in the batch for rendering (transforms, per-entity uniforms)
      */
-    void prepareEntity(EntityView entity, Material shader);
+    void prepareEntity(Transform transform, Material material);
 
 
     /**
@@ -1,18 +1,45 @@
 package org.chapzlock.core.input.keyboard;
 
-import org.chapzlock.core.event.Event;
+import org.chapzlock.core.event.EventPool;
+import org.chapzlock.core.event.PooledEvent;
 
 /**
- * @param key       GLFW key code
- * @param modifiers GLFW modifiers for the key
+ * A key was pressed. Pooled, see {@link PooledEvent}.
  */
-public record KeyPressedEvent(int key, int modifiers) implements Event {
+public final class KeyPressedEvent extends PooledEvent {
+    private static final EventPool<KeyPressedEvent> POOL = new EventPool<>(KeyPressedEvent::new);
+
+    private int key;
+    private int modifiers;
+
+    private KeyPressedEvent() {
+        super(POOL);
+    }
+
+    /**
+     * @param key       GLFW key code
+     * @param modifiers GLFW modifiers for the key
+     * @return an event from the pool, recycled after it has been posted
+     */
+    public static KeyPressedEvent obtain(int key, int modifiers) {
+        KeyPressedEvent event = POOL.acquire();
+        event.key = key;
+        event.modifiers = modifiers;
+        return event;
+    }
+
+    public int key() {
+        checkNotReleased();
+        return key;
+    }
+
+    public int modifiers() {
+        checkNotReleased();
+        return modifiers;
+    }
 
     @Override
     public String toString() {
-        return "KeyPressedEvent{" +
-            "key=" + key +
-            ", modifiers=" + modifiers +
-            '}';
+        return "KeyPressedEvent{key=" + key + ", modifiers=" + modifiers + '}';
     }
 }
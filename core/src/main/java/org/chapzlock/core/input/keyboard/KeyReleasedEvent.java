@@ -1,18 +1,45 @@
 package org.chapzlock.core.input.keyboard;
 
-import org.chapzlock.core.event.Event;
+import org.chapzlock.core.event.EventPool;
+import org.chapzlock.core.event.PooledEvent;
 
 /**
- * @param keyCode   GLFW key code
- * @param modifiers GLFW modifiers for the key (bitmap)
+ * A key was released. Pooled, see {@link PooledEvent}.
  */
-public record KeyReleasedEvent(int keyCode, int modifiers) implements Event {
+public final class KeyReleasedEvent extends PooledEvent {
+    private static final EventPool<KeyReleasedEvent> POOL = new EventPool<>(KeyReleasedEvent::new);
+
+    private int keyCode;
+    private int modifiers;
+
+    private KeyReleasedEvent() {
+        super(POOL);
+    }
+
+    /**
+     * @param keyCode   GLFW key code
+     * @param modifiers GLFW modifiers for the key (bitmap)
+     * @return an event from the pool, recycled after it has been posted
+     */
+    public static KeyReleasedEvent obtain(int keyCode, int modifiers) {
+        KeyReleasedEvent event = POOL.acquire();
+        event.keyCode = keyCode;
+        event.modifiers = modifiers;
+        return event;
+    }
+
+    public int keyCode() {
+        checkNotReleased();
+        return keyCode;
+    }
+
+    public int modifiers() {
+        checkNotReleased();
+        return modifiers;
+    }
 
     @Override
     public String toString() {
-        return "KeyReleasedEvent{" +
-            "keyCode=" + keyCode +
-            ", modifiers=" + modifiers +
-            '}';
+        return "KeyReleasedEvent{keyCode=" + keyCode + ", modifiers=" + modifiers + '}';
     }
 }
@@ -1,8 +1,50 @@
 package org.chapzlock.core.input.mouse;
 
-import org.chapzlock.core.event.Event;
+import org.chapzlock.core.event.EventPool;
+import org.chapzlock.core.event.PooledEvent;
 
-public record MouseButtonPressedEvent(int button, double x, double y) implements Event {
+/**
+ * A mouse button was pressed at the cursor position. Pooled, see {@link PooledEvent}.
+ */
+public final class MouseButtonPressedEvent extends PooledEvent {
+    private static final EventPool<MouseButtonPressedEvent> POOL = new EventPool<>(MouseButtonPressedEvent::new);
+
+    private int button;
+    private double x;
+    private double y;
+
+    private MouseButtonPressedEvent() {
+        super(POOL);
+    }
+
+    /**
+     * @param button GLFW mouse button
+     * @param x      cursor x position
+     * @param y      cursor y position
+     * @return an event from the pool, recycled after it has been posted
+     */
+    public static MouseButtonPressedEvent obtain(int button, double x, double y) {
+        MouseButtonPressedEvent event = POOL.acquire();
+        event.button = button;
+        event.x = x;
+        event.y = y;
+        return event;
+    }
+
+    public int button() {
+        checkNotReleased();
+        return button;
+    }
+
+    public double x() {
+        checkNotReleased();
+        return x;
+    }
+
+    public double y() {
+        checkNotReleased();
+        return y;
+    }
 
     @Override
     public String toString() {
@@ -1,12 +1,45 @@
 package org.chapzlock.core.input.mouse;
 
-import org.chapzlock.core.event.Event;
+import org.chapzlock.core.event.EventPool;
+import org.chapzlock.core.event.PooledEvent;
 
-public record MouseMovedEvent(double x, double y) implements Event {
+/**
+ * The cursor moved to an absolute position in screen coordinates. Pooled, see {@link PooledEvent}.
+ */
+public final class MouseMovedEvent extends PooledEvent {
+    private static final EventPool<MouseMovedEvent> POOL = new EventPool<>(MouseMovedEvent::new);
+
+    private double x;
+    private double y;
+
+    private MouseMovedEvent() {
+        super(POOL);
+    }
+
+    /**
+     * @param x cursor x position
+     * @param y cursor y position
+     * @return an event from the pool, recycled after it has been posted
+     */
+    public static MouseMovedEvent obtain(double x, double y) {
+        MouseMovedEvent event = POOL.acquire();
+        event.x = x;
+        event.y = y;
+        return event;
+    }
+
+    public double x() {
+        checkNotReleased();
+        return x;
+    }
+
+    public double y() {
+        checkNotReleased();
+        return y;
+    }
 
     @Override
     public String toString() {
         return "MouseMovedEvent{x=" + x + ", y=" + y + '}';
     }
 }
-
@@ -1,12 +1,45 @@
 package org.chapzlock.core.input.mouse;
 
-import org.chapzlock.core.event.Event;
+import org.chapzlock.core.event.EventPool;
+import org.chapzlock.core.event.PooledEvent;
 
-public record MouseScrolledEvent(double xOffset, double yOffset) implements Event {
+/**
+ * Scroll offsets since the previous event. Pooled, see {@link PooledEvent}.
+ */
+public final class MouseScrolledEvent extends PooledEvent {
+    private static final EventPool<MouseScrolledEvent> POOL = new EventPool<>(MouseScrolledEvent::new);
+
+    private double xOffset;
+    private double yOffset;
+
+    private MouseScrolledEvent() {
+        super(POOL);
+    }
+
+    /**
+     * @param xOffset horizontal scroll offset
+     * @param yOffset vertical scroll offset
+     * @return an event from the pool, recycled after it has been posted
+     */
+    public static MouseScrolledEvent obtain(double xOffset, double yOffset) {
+        MouseScrolledEvent event = POOL.acquire();
+        event.xOffset = xOffset;
+        event.yOffset = yOffset;
+        return event;
+    }
+
+    public double xOffset() {
+        checkNotReleased();
+        return xOffset;
+    }
+
+    public double yOffset() {
+        checkNotReleased();
+        return yOffset;
+    }
 
     @Override
     public String toString() {
         return "MouseScrolledEvent{xOffset=" + xOffset + ", yOffset=" + yOffset + '}';
     }
 }
-
@@ -12,29 +12,26 @@ import com.bulletphysics.collision.narrowphase.ManifoldPoint;
 import com.bulletphysics.collision.narrowphase.PersistentManifold;
 import com.bulletphysics.dynamics.DiscreteDynamicsWorld;
 
-import lombok.experimental.UtilityClass;
-
 /**
- * High-performance collision utilities.
+ * High-performance collision queries for one physics world.
  * <p>
  * Features:
  * - O(1) cached lookups for "is colliding?" queries after each physics step
  * - Zero allocations during queries
  * - NB! Make sure you are running s physics simulation in the background.
  */
-@UtilityClass
-public class PhysicsCollisionUtil {
+public class ContactCache {
 
     /**
      * Cached contact map: each object → set of others it’s touching
      */
-    private static final Map<CollisionObject, Set<CollisionObject>> contactMap = new IdentityHashMap<>();
+    private final Map<CollisionObject, Set<CollisionObject>> contactMap = new IdentityHashMap<>();
 
     /**
      * Should be called once per physics step (after world.stepSimulation)
      * to rebuild the contact cache from all manifolds.
      */
-    public static void rebuildContactCache(DiscreteDynamicsWorld world) {
+    public void rebuild(DiscreteDynamicsWorld world) {
         contactMap.clear();
 
         if (!(world.getDispatcher() instanceof CollisionDispatcher)) {
@@ -73,9 +70,9 @@ public class PhysicsCollisionUtil {
     }
 
     /**
-     * Cached check: O(1) average time after calling rebuildContactCache().
+     * Cached check: O(1) average time after calling rebuild().
      */
-    public static boolean areColliding(CollisionObject a, CollisionObject b) {
+    public boolean areColliding(CollisionObject a, CollisionObject b) {
         Set<CollisionObject> others = contactMap.get(a);
         return others != null && others.contains(b);
     }
@@ -83,7 +80,7 @@ public class PhysicsCollisionUtil {
     /**
      * Cached check: is subject colliding with *any* object satisfying filter?
      */
-    public static boolean isCollidingWithAny(CollisionObject subject, Predicate<CollisionObject> filter) {
+    public boolean isCollidingWithAny(CollisionObject subject, Predicate<CollisionObject> filter) {
         Set<CollisionObject> others = contactMap.get(subject);
         if (others == null) {
             return false;
@@ -2,6 +2,8 @@ package org.chapzlock.core.physics;
 
 import javax.vecmath.Quat4f;
 
+import org.joml.Quaternionfc;
+
 import com.bulletphysics.linearmath.MotionState;
 import com.bulletphysics.linearmath.Transform;
 
@@ -11,12 +13,18 @@ import com.bulletphysics.linearmath.Transform;
 public class EntityMotionState extends MotionState {
     private final Transform initialTransform = new Transform();
     private final org.chapzlock.core.component.Transform transformComponent;
+    /**
+     * Reused for every simulation step to avoid allocations
+     */
+    private final Quat4f rotation = new Quat4f();
 
     public EntityMotionState(org.chapzlock.core.component.Transform tc) {
         this.transformComponent = tc;
         initialTransform.setIdentity();
-        initialTransform.origin.set(tc.getPosition().x, tc.getPosition().y, tc.getPosition().z);
-        initialTransform.setRotation(PhysicsUtil.eulerToQuaternion(tc.getRotation()));
+        initialTransform.origin.set(tc.getPosition().x(), tc.getPosition().y(), tc.getPosition().z());
+        Quaternionfc orientation = tc.getOrientation();
+        rotation.set(orientation.x(), orientation.y(), orientation.z(), orientation.w());
+        initialTransform.setRotation(rotation);
     }
 
     @Override
@@ -30,6 +38,7 @@ public class EntityMotionState extends MotionState {
     public void setWorldTransform(Transform worldTrans) {
         // Called by Bullet each simulation step to update the ECS transform
         transformComponent.setPosition(worldTrans.origin.x, worldTrans.origin.y, worldTrans.origin.z);
-        transformComponent.setRotation(PhysicsUtil.quaternionToEuler(worldTrans.getRotation(new Quat4f())));
+        worldTrans.getRotation(rotation);
+        transformComponent.setOrientation(rotation.x, rotation.y, rotation.z, rotation.w);
     }
 }
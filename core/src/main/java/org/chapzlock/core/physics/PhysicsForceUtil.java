@@ -17,10 +17,8 @@ import lombok.experimental.UtilityClass;
 public final class PhysicsForceUtil {
 
     // Temp reusable vectors for minor optimization (avoid new allocations).
-    // Not thread-safe — call only from the physics thread.
-    private static final Vector3f tempWorldDir = new Vector3f();
-    private static final Transform tempLocalDir = new Transform();
-    private static final Vector3f tempWorldPos = new Vector3f();
+    // One set per thread, so that separate worlds can be simulated in parallel.
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
 
     /**
      * Applies a continuous world-space force.
@@ -61,8 +59,9 @@ public final class PhysicsForceUtil {
             return;
         }
         body.activate(true);
-        transformLocalToWorldDir(body, force, tempWorldDir);
-        body.applyCentralForce(tempWorldDir);
+        Scratch scratch = SCRATCH.get();
+        transformLocalToWorldDir(body, force, scratch);
+        body.applyCentralForce(scratch.worldDir);
     }
 
     /**
@@ -76,19 +75,20 @@ public final class PhysicsForceUtil {
             return;
         }
         body.activate(true);
-        transformLocalToWorldDir(body, force, tempWorldDir);
-        transformLocalToWorldPoint(body, posLocal);
-        body.applyForce(tempWorldDir, tempWorldPos);
+        Scratch scratch = SCRATCH.get();
+        transformLocalToWorldDir(body, force, scratch);
+        transformLocalToWorldPoint(body, posLocal, scratch);
+        body.applyForce(scratch.worldDir, scratch.worldPos);
     }
 
     /**
      * Converts a local-space direction vector into world-space direction.
      */
-    private static void transformLocalToWorldDir(RigidBody body, Vector3f local, Vector3f out) {
-        // fill tempLocalDir with world transform
-        body.getWorldTransform(tempLocalDir);
+    private static void transformLocalToWorldDir(RigidBody body, Vector3f local, Scratch scratch) {
+        // fill the scratch transform with world transform
+        body.getWorldTransform(scratch.worldTransform);
         // use the basis (rotation) to transform direction (no translation)
-        tempLocalDir.basis.transform(local, out);
+        scratch.worldTransform.basis.transform(local, scratch.worldDir);
     }
 
     /**
@@ -99,8 +99,9 @@ public final class PhysicsForceUtil {
             return;
         }
         body.activate(true);
-        transformLocalToWorldDir(body, localImpulse, tempWorldDir);
-        body.applyCentralImpulse(tempWorldDir);
+        Scratch scratch = SCRATCH.get();
+        transformLocalToWorldDir(body, localImpulse, scratch);
+        body.applyCentralImpulse(scratch.worldDir);
     }
 
     /**
@@ -117,10 +118,10 @@ public final class PhysicsForceUtil {
     /**
      * Converts a local-space point into a world-space point (includes translation).
      */
-    private static void transformLocalToWorldPoint(RigidBody body, Vector3f localPoint) {
-        body.getWorldTransform(tempLocalDir);
+    private static void transformLocalToWorldPoint(RigidBody body, Vector3f localPoint, Scratch scratch) {
+        body.getWorldTransform(scratch.worldTransform);
         // Transform point (includes translation)
-        tempLocalDir.transform(localPoint);
+        scratch.worldTransform.transform(localPoint);
     }
 
     /**
@@ -144,8 +145,9 @@ public final class PhysicsForceUtil {
             return;
         }
         body.activate(true);
-        transformLocalToWorldDir(body, t, tempWorldDir);
-        body.applyTorque(tempWorldDir);
+        Scratch scratch = SCRATCH.get();
+        transformLocalToWorldDir(body, t, scratch);
+        body.applyTorque(scratch.worldDir);
     }
 
     /**
@@ -160,4 +162,10 @@ public final class PhysicsForceUtil {
         body.setAngularVelocity(new Vector3f(0, 0, 0));
         body.clearForces();
     }
+
+    private static final class Scratch {
+        private final Vector3f worldDir = new Vector3f();
+        private final Transform worldTransform = new Transform();
+        private final Vector3f worldPos = new Vector3f();
+    }
 }
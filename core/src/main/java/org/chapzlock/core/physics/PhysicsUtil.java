@@ -4,6 +4,7 @@ import javax.vecmath.Quat4f;
 
 import org.chapzlock.core.geometry.RawMeshData;
 import org.joml.Vector3f;
+import org.joml.Vector3fc;
 
 import lombok.experimental.UtilityClass;
 
@@ -58,10 +59,10 @@ public class PhysicsUtil {
      * @param eulerRotation
      * @return Quat4f quaternion
      */
-    public static Quat4f eulerToQuaternion(Vector3f eulerRotation) {
-        float xRad = (float) Math.toRadians(eulerRotation.x);
-        float yRad = (float) Math.toRadians(eulerRotation.y);
-        float zRad = (float) Math.toRadians(eulerRotation.z);
+    public static Quat4f eulerToQuaternion(Vector3fc eulerRotation) {
+        float xRad = (float) Math.toRadians(eulerRotation.x());
+        float yRad = (float) Math.toRadians(eulerRotation.y());
+        float zRad = (float) Math.toRadians(eulerRotation.z());
 
         float cx = (float) Math.cos(xRad / 2);
         float sx = (float) Math.sin(xRad / 2);
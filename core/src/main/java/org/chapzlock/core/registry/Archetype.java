@@ -0,0 +1,265 @@
+package org.chapzlock.core.registry;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Table of all entities that share the exact same set of component types.
+ * Every component type gets its own column and every entity occupies one row,
+ * so iterating an archetype is a linear sweep over contiguous arrays.
+ * <p>
+ * {@link org.chapzlock.core.application.Tag} types are part of the signature only and have no column.
+ */
+final class Archetype {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int id;
+    /**
+     * Component type ids present in this archetype
+     */
+    private final BitSet signature;
+    /**
+     * Component type ids with a column in ascending order, index matches the column index
+     */
+    private final int[] typeIds;
+    /**
+     * Lookup from component type id to column index, -1 when the type is not part of this archetype
+     */
+    private final int[] columnByTypeId;
+    private final Component[][] columns;
+    /**
+     * Registry change tick at which each component was last added or marked as changed, parallel to the columns
+     */
+    private final int[][] changeTicks;
+    private int[] entities;
+    private int size;
+    /**
+     * Columns filled with the shared instance of a tag type, indexed by type id, only for tags handed out by queries
+     */
+    private Component[][] tagColumns = new Component[0][];
+
+    /**
+     * Cached archetype transitions when adding or removing a component type (indexed by type id)
+     */
+    private Archetype[] addTransitions = new Archetype[0];
+    private Archetype[] removeTransitions = new Archetype[0];
+
+    /**
+     * @param tagTypeIds type ids that are stored as signature bits only
+     */
+    Archetype(int id, BitSet signature, BitSet tagTypeIds) {
+        this.id = id;
+        this.signature = (BitSet) signature.clone();
+        BitSet columnTypes = (BitSet) signature.clone();
+        columnTypes.andNot(tagTypeIds);
+        this.typeIds = columnTypes.stream().toArray();
+        this.columnByTypeId = new int[signature.length()];
+        Arrays.fill(columnByTypeId, -1);
+        for (int column = 0; column < typeIds.length; column++) {
+            columnByTypeId[typeIds[column]] = column;
+        }
+        this.columns = new Component[typeIds.length][INITIAL_CAPACITY];
+        this.changeTicks = new int[typeIds.length][INITIAL_CAPACITY];
+        this.entities = new int[INITIAL_CAPACITY];
+    }
+
+    int id() {
+        return id;
+    }
+
+    BitSet signature() {
+        return signature;
+    }
+
+    int[] typeIds() {
+        return typeIds;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] entities() {
+        return entities;
+    }
+
+    /**
+     * @return true if entities of this archetype have the component or tag type
+     */
+    boolean has(int typeId) {
+        return signature.get(typeId);
+    }
+
+    /**
+     * @return column index for the component type or -1 if the archetype does not contain it or it is a tag
+     */
+    int columnOf(int typeId) {
+        return typeId < columnByTypeId.length ? columnByTypeId[typeId] : -1;
+    }
+
+    /**
+     * Raw column storage. Only indices below {@link #size()} are valid.
+     */
+    Component[] column(int column) {
+        return columns[column];
+    }
+
+    /**
+     * Raw change ticks of a column. Only indices below {@link #size()} are valid.
+     */
+    int[] changeTicks(int column) {
+        return changeTicks[column];
+    }
+
+    void setChangeTick(int row, int column, int tick) {
+        changeTicks[column][row] = tick;
+    }
+
+    /**
+     * @return column of the tag type filled with its shared instance, null if it has not been filled
+     */
+    Component[] tagColumn(int typeId) {
+        return typeId < tagColumns.length ? tagColumns[typeId] : null;
+    }
+
+    /**
+     * Fills the column of a tag type with its shared instance, the column grows together with the other columns.
+     * Must be called while no structural changes or iterations happen, like the rest of the storage.
+     */
+    void fillTagColumn(int typeId, Component instance) {
+        if (typeId >= tagColumns.length) {
+            tagColumns = Arrays.copyOf(tagColumns, typeId + 1);
+        }
+        if (tagColumns[typeId] == null) {
+            tagColumns[typeId] = new Component[entities.length];
+        }
+        Arrays.fill(tagColumns[typeId], instance);
+    }
+
+    Component get(int row, int column) {
+        return columns[column][row];
+    }
+
+    void set(int row, int column, Component component) {
+        columns[column][row] = component;
+    }
+
+    /**
+     * Checks whether all required component types are present in this archetype.
+     */
+    boolean containsAll(BitSet required) {
+        for (int typeId = required.nextSetBit(0); typeId >= 0; typeId = required.nextSetBit(typeId + 1)) {
+            if (!signature.get(typeId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether any of the component types is present in this archetype.
+     */
+    boolean containsAny(BitSet types) {
+        return signature.intersects(types);
+    }
+
+    /**
+     * Appends a new row for the entity. Components of the row are left empty.
+     *
+     * @return the row index of the entity
+     */
+    int addRow(int entityId) {
+        ensureCapacity(size + 1);
+        entities[size] = entityId;
+        return size++;
+    }
+
+    /**
+     * Removes a row by moving the last row into its place.
+     *
+     * @return id of the entity that was moved into the removed row or -1 if no entity was moved
+     */
+    int removeRow(int row) {
+        int last = size - 1;
+        int movedEntity = -1;
+        if (row != last) {
+            entities[row] = entities[last];
+            for (int column = 0; column < columns.length; column++) {
+                columns[column][row] = columns[column][last];
+                changeTicks[column][row] = changeTicks[column][last];
+            }
+            movedEntity = entities[row];
+        }
+        for (Component[] column : columns) {
+            column[last] = null;
+        }
+        size--;
+        return movedEntity;
+    }
+
+    /**
+     * Copies every component the two archetypes have in common from one row to another.
+     */
+    void copyRowTo(int row, Archetype target, int targetRow) {
+        for (int column = 0; column < typeIds.length; column++) {
+            int targetColumn = target.columnOf(typeIds[column]);
+            if (targetColumn >= 0) {
+                target.columns[targetColumn][targetRow] = columns[column][row];
+                target.changeTicks[targetColumn][targetRow] = changeTicks[column][row];
+            }
+        }
+    }
+
+    /**
+     * Removes all rows
+     */
+    void clear() {
+        for (Component[] column : columns) {
+            Arrays.fill(column, 0, size, null);
+        }
+        size = 0;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity <= entities.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, entities.length * 2);
+        entities = Arrays.copyOf(entities, newCapacity);
+        for (int column = 0; column < columns.length; column++) {
+            columns[column] = Arrays.copyOf(columns[column], newCapacity);
+            changeTicks[column] = Arrays.copyOf(changeTicks[column], newCapacity);
+        }
+        for (int typeId = 0; typeId < tagColumns.length; typeId++) {
+            Component[] tagColumn = tagColumns[typeId];
+            if (tagColumn != null) {
+                tagColumns[typeId] = Arrays.copyOf(tagColumn, newCapacity);
+                Arrays.fill(tagColumns[typeId], tagColumn.length, newCapacity, tagColumn[0]);
+            }
+        }
+    }
+
+    Archetype getAddTransition(int typeId) {
+        return typeId < addTransitions.length ? addTransitions[typeId] : null;
+    }
+
+    void setAddTransition(int typeId, Archetype archetype) {
+        if (typeId >= addTransitions.length) {
+            addTransitions = Arrays.copyOf(addTransitions, typeId + 1);
+        }
+        addTransitions[typeId] = archetype;
+    }
+
+    Archetype getRemoveTransition(int typeId) {
+        return typeId < removeTransitions.length ? removeTransitions[typeId] : null;
+    }
+
+    void setRemoveTransition(int typeId, Archetype archetype) {
+        if (typeId >= removeTransitions.length) {
+            removeTransitions = Arrays.copyOf(removeTransitions, typeId + 1);
+        }
+        removeTransitions[typeId] = archetype;
+    }
+}
@@ -0,0 +1,39 @@
+package org.chapzlock.core.registry;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Query filter that only lets through entities whose component of the given type changed since the filter
+ * was last used. Every system should own its filter instances, as each one remembers when it last ran.
+ * <p>
+ * A component counts as changed when it was added, when it was marked through
+ * {@link ComponentRegistry#markChanged(int, Class)} or, for {@link org.chapzlock.core.application.ChangeTracked}
+ * components such as {@link org.chapzlock.core.component.Transform}, when it was modified.
+ */
+public final class Changed<T extends Component> {
+    private final Class<T> type;
+    /**
+     * Change tick up to which changes have been seen. Everything is new to a fresh filter.
+     */
+    private int lastRunTick;
+
+    private Changed(Class<T> type) {
+        this.type = type;
+    }
+
+    public static <T extends Component> Changed<T> of(Class<T> type) {
+        return new Changed<>(type);
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    int lastRunTick() {
+        return lastRunTick;
+    }
+
+    void setLastRunTick(int lastRunTick) {
+        this.lastRunTick = lastRunTick;
+    }
+}
@@ -0,0 +1,19 @@
+package org.chapzlock.core.registry;
+
+import java.nio.ByteBuffer;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Binary encoding of one component type, used by {@link ComponentRegistry#snapshot(ByteBuffer)}.
+ * <p>
+ * Codecs write the fields of a component at the current position of the buffer and must read back exactly
+ * the bytes they wrote. Tags are written once per archetype as the instance shared by their entities, and always
+ * read back; the registry keeps its own shared instance if it already has one.
+ */
+public interface ComponentCodec<T extends Component> {
+
+    void write(T component, ByteBuffer buffer);
+
+    T read(ByteBuffer buffer);
+}
@@ -0,0 +1,61 @@
+package org.chapzlock.core.registry;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Handle to an observer registered with {@link ComponentRegistry#onAdd(Class, EntityConsumer1)}
+ * or {@link ComponentRegistry#onRemove(Class, EntityConsumer1)}.
+ * <p>
+ * Use {@link #unsubscribe()} or {@link #close()} to remove the observer.
+ */
+public final class ComponentObserver implements AutoCloseable {
+    private final ObserverQueue queue;
+    private final int typeId;
+    private final boolean onAdd;
+    private final EntityConsumer1<Component> consumer;
+    private volatile boolean active = true;
+
+    ComponentObserver(ObserverQueue queue, int typeId, boolean onAdd, EntityConsumer1<Component> consumer) {
+        this.queue = queue;
+        this.typeId = typeId;
+        this.onAdd = onAdd;
+        this.consumer = consumer;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Equivalent to {@link #unsubscribe()}.
+     */
+    @Override
+    public void close() {
+        unsubscribe();
+    }
+
+    /**
+     * Removes the observer, it is not notified of pending changes either. Safe to call multiple times.
+     */
+    public void unsubscribe() {
+        if (!active) {
+            return;
+        }
+        active = false;
+        queue.remove(this);
+    }
+
+    int typeId() {
+        return typeId;
+    }
+
+    boolean isOnAdd() {
+        return onAdd;
+    }
+
+    void notify(int entityId, Component component) {
+        if (active) {
+            consumer.accept(entityId, component);
+        }
+    }
+}
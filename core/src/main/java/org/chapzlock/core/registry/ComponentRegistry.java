@@ -1,39 +1,135 @@
 package org.chapzlock.core.registry;
 
+import java.lang.foreign.MemoryLayout;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.chapzlock.core.application.Component;
+import org.chapzlock.core.application.Tag;
+import org.chapzlock.core.component.Transform;
+import org.chapzlock.core.component.TransformCodec;
+import org.chapzlock.core.component.TransformStore;
+import org.chapzlock.core.entity.EntityIdGenerator;
 import org.chapzlock.core.entity.EntityView;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 
 /**
  * Central registry for all the components and entities tied to them
  * Mainly used in Systems to execute logic
- * Implemented as a singleton because it carries the global state of entities
+ * Every {@link org.chapzlock.core.application.World} owns a registry, {@link #instance()} is the registry of the
+ * default world and is used by systems that are not given a registry explicitly
+ * <p>
+ * Components are stored in archetypes: entities with the same set of component types share a table
+ * where every component type is a contiguous column. Queries only visit archetypes that match.
+ * <p>
+ * Systems that iterate every frame should hold on to a {@link Query} from {@link #query(Class[])},
+ * which is maintained incrementally and iterates without allocating.
+ * <p>
+ * Components that exist once per world, like the camera, are kept as resources outside of any entity
+ * (see {@link #resource(Class)}) and are looked up by type id without touching archetypes.
+ * <p>
+ * {@link Tag} components are stored as a bit in the archetype signature only, every entity shares the first
+ * instance added for a tag type. Queries can exclude types with {@link Query#without(Class[])}.
+ * <p>
+ * Transform data of all registered entities is additionally packed into a {@link TransformStore}
+ * for cache friendly sweeps. Large populations can keep fixed-layout data off the heap in an {@link OffHeapStore}
+ * bound to a tag type, see {@link #registerOffHeapStore(Class, MemoryLayout)}, whose memory is freed by
+ * {@link #close()}.
+ * <p>
+ * Structural changes made while iterating should be recorded into the {@link #commands()} buffer,
+ * which is played back at the sync point of the main loop. Systems that maintain their own structures can observe
+ * components being added and removed with {@link #onAdd(Class, EntityConsumer1)} and
+ * {@link #onRemove(Class, EntityConsumer1)} instead of polling.
+ * <p>
+ * Entities and resources can be saved into a binary snapshot and restored later, see {@link #snapshot(ByteBuffer)}.
  */
-public class ComponentRegistry {
+public class ComponentRegistry implements AutoCloseable {
+    private static final int INITIAL_ENTITY_CAPACITY = 1024;
+    private static final int SNAPSHOT_MAGIC = 0x45435301;
+
     private static ComponentRegistry instance;
 
     private final Map<Class<? extends Component>, Integer> typeToId = new Object2IntOpenHashMap<>();
-    private final List<ComponentStore<?>> stores = new ArrayList<>();
     private final AtomicInteger nextTypeId = new AtomicInteger();
+    private final BitSet tagTypeIds = new BitSet();
+    /**
+     * Shared instance of every tag type, indexed by type id
+     */
+    private Component[] tagInstances = new Component[16];
+    /**
+     * Singleton resources, indexed by type id
+     */
+    private Component[] resources = new Component[16];
+    /**
+     * Codecs of the types that are part of snapshots, indexed by type id
+     */
+    private ComponentCodec<?>[] codecs = new ComponentCodec<?>[16];
+    private final List<Class<? extends Component>> codecTypes = new ArrayList<>();
+    private final Map<String, Class<? extends Component>> codecTypesByName = new HashMap<>();
+
+    private final List<Archetype> archetypes = new ArrayList<>();
+    private final Map<BitSet, Archetype> archetypesBySignature = new HashMap<>();
+    private final Map<BitSet, Query> queries = new HashMap<>();
+    private final Map<FilteredQueryKey, Query> filteredQueries = new HashMap<>();
+    /**
+     * Reused key for looking up cached queries without allocating
+     */
+    private final BitSet queryKey = new BitSet();
+    /**
+     * Archetype without any components
+     */
+    private final Archetype emptyArchetype;
+
+    private final EntityIdGenerator entityIdGenerator = new EntityIdGenerator();
+    /**
+     * Location of every entity, indexed by the entity index (see {@link EntityIdGenerator#index(int)}).
+     * The full Id is kept to reject stale handles whose index has been recycled.
+     */
+    private int[] entityIds = new int[INITIAL_ENTITY_CAPACITY];
+    private Archetype[] entityArchetypes = new Archetype[INITIAL_ENTITY_CAPACITY];
+    private int[] entityRows = new int[INITIAL_ENTITY_CAPACITY];
+
+    private final TransformStore transforms = new TransformStore();
+    /**
+     * Off-heap data of tag types, indexed by type id
+     */
+    private OffHeapStore[] offHeapStores = new OffHeapStore[16];
+    private final EntityCommandBuffer commands = new EntityCommandBuffer(this);
+    private final ObserverQueue observers = new ObserverQueue();
     /**
-     * Tracks which components each entity has (bitset per entity)
+     * Number of parallel query passes in progress, structural changes are rejected while it is not zero
      */
-    private final Int2ObjectOpenHashMap<BitSet> entityComponentMasks = new Int2ObjectOpenHashMap<>();
+    private final AtomicInteger parallelPasses = new AtomicInteger();
+    /**
+     * Stamped on components when they are added or changed, advanced after every {@link Changed} pass
+     */
+    private final AtomicInteger changeTick = new AtomicInteger(1);
 
-    private ComponentRegistry() {
+    /**
+     * Creates an empty registry, independent of the default one
+     */
+    public ComponentRegistry() {
+        this.emptyArchetype = getOrCreateArchetype(new BitSet());
+        this.transforms.setChangeTick(changeTick.get());
+        registerCodec(Transform.class, new TransformCodec());
     }
 
-    public static ComponentRegistry instance() {
+    /**
+     * @return registry of the default world
+     */
+    public static synchronized ComponentRegistry instance() {
         if (instance == null) {
             instance = new ComponentRegistry();
         }
@@ -44,28 +140,221 @@ public class ComponentRegistry {
      * Assigns or retrieves an integer ID for a component type.
      */
     private int getOrRegisterTypeId(Class<? extends Component> type) {
-        return typeToId.computeIfAbsent(type, t -> {
-            int id = nextTypeId.getAndIncrement();
-            // ensure stores grows
-            while (stores.size() <= id) {
-                stores.add(null);
+        Integer typeId = typeToId.get(type);
+        if (typeId != null) {
+            return typeId;
+        }
+        int newTypeId = nextTypeId.getAndIncrement();
+        typeToId.put(type, newTypeId);
+        if (Tag.class.isAssignableFrom(type)) {
+            tagTypeIds.set(newTypeId);
+        }
+        return newTypeId;
+    }
+
+    /**
+     * Creates a new entity without any components.
+     *
+     * @return Id of the entity
+     */
+    public int createEntity() {
+        int entityId = reserveEntity();
+        placeEntity(entityId);
+        return entityId;
+    }
+
+    /**
+     * Removes all components of the entity and recycles its Id.
+     * Does nothing if the entity has already been destroyed.
+     */
+    public void destroyEntity(int entityId) {
+        checkStructuralChangesAllowed();
+        Archetype archetype = getArchetype(entityId);
+        if (archetype == null) {
+            return;
+        }
+        int index = EntityIdGenerator.index(entityId);
+        int row = entityRows[index];
+        BitSet signature = archetype.signature();
+        for (int typeId = signature.nextSetBit(0); typeId >= 0; typeId = signature.nextSetBit(typeId + 1)) {
+            int column = archetype.columnOf(typeId);
+            onComponentRemoved(entityId, typeId, column < 0 ? tagInstance(typeId) : archetype.get(row, column));
+        }
+        removeFromArchetype(entityId, archetype);
+        entityIds[index] = 0;
+        entityArchetypes[index] = null;
+        entityIdGenerator.release(entityId);
+    }
+
+    /**
+     * Returns a handle to the storage of entities with exactly the given component types, for bulk spawning.
+     */
+    @SafeVarargs
+    public final synchronized EntityArchetype archetype(Class<? extends Component>... types) {
+        int[] typeIds = new int[types.length];
+        BitSet signature = new BitSet();
+        for (int i = 0; i < types.length; i++) {
+            typeIds[i] = getOrRegisterTypeId(types[i]);
+            if (signature.get(typeIds[i])) {
+                throw new IllegalArgumentException(types[i].getSimpleName() + " is listed more than once");
+            }
+            signature.set(typeIds[i]);
+        }
+        return new EntityArchetype(this, getOrCreateArchetype(signature), types.clone(), typeIds);
+    }
+
+    /**
+     * Creates many entities of the same archetype in one pass. Storage for all of them is reserved up front and
+     * the initializer writes the components straight into the archetype columns.
+     *
+     * @param count       number of entities to create
+     * @param archetype   component types of the entities, see {@link #archetype(Class[])}
+     * @param initializer sets every component of each entity
+     * @return Id-s of the created entities
+     * @throws IllegalStateException    if the initializer leaves a component unset, no entity is created then
+     * @throws IllegalArgumentException if the archetype belongs to another registry
+     */
+    public int[] spawn(int count, EntityArchetype archetype, SpawnInitializer initializer) {
+        checkStructuralChangesAllowed();
+        if (archetype.registry() != this) {
+            throw new IllegalArgumentException("Archetype belongs to another registry");
+        }
+        Archetype target = archetype.archetype();
+        int[] ids = entityIdGenerator.nextIds(count);
+        int maxIndex = 0;
+        for (int id : ids) {
+            maxIndex = Math.max(maxIndex, EntityIdGenerator.index(id));
+        }
+        ensureEntityCapacity(maxIndex);
+        int firstRow = target.size();
+        target.ensureCapacity(firstRow + count);
+
+        // fill and validate every row before any entity becomes visible, so a failure can be rolled back
+        SpawnedEntity entity = new SpawnedEntity(archetype);
+        Class<? extends Component>[] types = archetype.types();
+        int[] typeIds = archetype.typeIds();
+        try {
+            for (int i = 0; i < count; i++) {
+                int row = target.addRow(ids[i]);
+                entity.moveTo(ids[i], row);
+                initializer.initialize(i, entity);
+                for (int t = 0; t < types.length; t++) {
+                    int column = target.columnOf(typeIds[t]);
+                    if (column < 0 ? tagInstance(typeIds[t]) == null : target.get(row, column) == null) {
+                        throw new IllegalStateException(types[t].getSimpleName() + " was not set for entity " + i);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            for (int row = target.size() - 1; row >= firstRow; row--) {
+                target.removeRow(row);
+            }
+            for (int id : ids) {
+                entityIdGenerator.release(id);
+            }
+            throw e;
+        }
+
+        int transformColumn = target.columnOf(getOrRegisterTypeId(Transform.class));
+        if (transformColumn >= 0) {
+            transforms.reserve(count);
+        }
+        int tick = changeTick.get();
+        for (int i = 0; i < count; i++) {
+            int entityId = ids[i];
+            int index = EntityIdGenerator.index(entityId);
+            int row = firstRow + i;
+            entityIds[index] = entityId;
+            entityArchetypes[index] = target;
+            entityRows[index] = row;
+            for (int typeId : typeIds) {
+                int column = target.columnOf(typeId);
+                if (column < 0) {
+                    onComponentAdded(entityId, typeId, tagInstance(typeId));
+                    continue;
+                }
+                target.setChangeTick(row, column, tick);
+                onComponentAdded(entityId, typeId, target.get(row, column));
             }
-            stores.set(id, new ComponentStore<>());
-            return id;
-        });
+        }
+        return ids;
+    }
+
+    /**
+     * @return true if the entity has been created and not yet destroyed
+     */
+    public boolean isAlive(int entityId) {
+        return getArchetype(entityId) != null;
     }
 
     /**
      * Adds a component to an entity.
+     * If the entity already has a component of the same type it is replaced. Adding a tag the entity already has
+     * does nothing.
+     *
+     * @throws IllegalArgumentException if the entity is not alive
      */
-    @SuppressWarnings("unchecked")
     public <T extends Component> void addComponent(int entityId, T component) {
+        checkStructuralChangesAllowed();
         int typeId = getOrRegisterTypeId(component.getClass());
-        ComponentStore<T> store = (ComponentStore<T>) stores.get(typeId);
-        store.put(entityId, component);
+        Archetype current = getArchetype(entityId);
+        if (current == null) {
+            throw new IllegalArgumentException("Entity " + entityId + " is not alive");
+        }
+        if (current.has(typeId)) {
+            int row = entityRows[EntityIdGenerator.index(entityId)];
+            int column = current.columnOf(typeId);
+            if (column >= 0) {
+                onComponentRemoved(entityId, typeId, current.get(row, column));
+                storeComponent(current, row, typeId, component);
+            }
+            return;
+        }
 
-        BitSet mask = entityComponentMasks.computeIfAbsent(entityId, e -> new BitSet());
-        mask.set(typeId);
+        Archetype target = addTransition(current, typeId);
+        int row = moveEntity(entityId, current, target);
+        storeComponent(target, row, typeId, component);
+    }
+
+    /**
+     * Applies a batch of component changes to an entity, moving it to its final archetype at most once.
+     * Types listed in both arrays are not supported, the command buffer merges those beforehand.
+     * Does nothing if the entity is not alive.
+     */
+    void changeComponents(int entityId, Component[] added, int addedCount,
+                          Class<? extends Component>[] removed, int removedCount) {
+        checkStructuralChangesAllowed();
+        Archetype current = getArchetype(entityId);
+        if (current == null) {
+            return;
+        }
+        int row = entityRows[EntityIdGenerator.index(entityId)];
+        Archetype target = current;
+        for (int i = 0; i < removedCount; i++) {
+            Integer typeId = typeToId.get(removed[i]);
+            if (typeId != null && current.has(typeId)) {
+                int column = current.columnOf(typeId);
+                onComponentRemoved(entityId, typeId, column < 0 ? tagInstance(typeId) : current.get(row, column));
+                target = removeTransition(target, typeId);
+            }
+        }
+        for (int i = 0; i < addedCount; i++) {
+            int typeId = getOrRegisterTypeId(added[i].getClass());
+            if (current.columnOf(typeId) >= 0) {
+                onComponentRemoved(entityId, typeId, current.get(row, current.columnOf(typeId)));
+            }
+            target = addTransition(target, typeId);
+        }
+
+        if (target != current) {
+            row = moveEntity(entityId, current, target);
+        }
+        for (int i = 0; i < addedCount; i++) {
+            int typeId = typeToId.get(added[i].getClass());
+            if (target.columnOf(typeId) >= 0 || !current.has(typeId)) {
+                storeComponent(target, row, typeId, added[i]);
+            }
+        }
     }
 
     /**
@@ -90,80 +379,807 @@ public class ComponentRegistry {
         if (typeId == null) {
             return null;
         }
-        ComponentStore<T> store = (ComponentStore<T>) stores.get(typeId);
-        return store.get(entityId);
+        Archetype archetype = getArchetype(entityId);
+        if (archetype == null || !archetype.has(typeId)) {
+            return null;
+        }
+        int column = archetype.columnOf(typeId);
+        if (column < 0) {
+            return (T) tagInstance(typeId);
+        }
+        return (T) archetype.get(entityRows[EntityIdGenerator.index(entityId)], column);
+    }
+
+    /**
+     * Flags a component of the entity as changed, so that {@link Changed} filters pick it up.
+     * Not needed for components that track their own changes, like {@link Transform}.
+     */
+    public <T extends Component> void markChanged(int entityId, Class<T> type) {
+        Integer typeId = typeToId.get(type);
+        Archetype archetype = getArchetype(entityId);
+        if (typeId == null || archetype == null || archetype.columnOf(typeId) < 0) {
+            return;
+        }
+        archetype.setChangeTick(entityRows[EntityIdGenerator.index(entityId)], archetype.columnOf(typeId),
+            changeTick.get());
+    }
+
+    /**
+     * @return the tick that is currently stamped on changed components
+     */
+    public int changeTick() {
+        return changeTick.get();
     }
 
     /**
      * Removes a component from an entity.
      */
-    @SuppressWarnings("unchecked")
     public <T extends Component> void removeComponent(int entityId, Class<T> type) {
+        checkStructuralChangesAllowed();
         Integer typeId = typeToId.get(type);
         if (typeId == null) {
             return;
         }
-        ComponentStore<T> store = (ComponentStore<T>) stores.get(typeId);
-        store.remove(entityId);
+        Archetype current = getArchetype(entityId);
+        if (current == null || !current.has(typeId)) {
+            return;
+        }
+        int column = current.columnOf(typeId);
+        Component removed = column < 0
+            ? tagInstance(typeId)
+            : current.get(entityRows[EntityIdGenerator.index(entityId)], column);
+        onComponentRemoved(entityId, typeId, removed);
+        moveEntity(entityId, current, removeTransition(current, typeId));
+    }
 
-        BitSet mask = entityComponentMasks.get(entityId);
-        if (mask != null) {
-            mask.clear(typeId);
-            if (mask.isEmpty()) {
-                entityComponentMasks.remove(entityId); // cleanup if no components left
-            }
+    /**
+     * Stores the resource as the single instance of its type, replacing the previous one.
+     */
+    public synchronized <T extends Component> void setResource(T resource) {
+        int typeId = getOrRegisterTypeId(resource.getClass());
+        if (typeId >= resources.length) {
+            resources = Arrays.copyOf(resources, Math.max(typeId + 1, resources.length * 2));
+        }
+        resources[typeId] = resource;
+    }
+
+    /**
+     * Constant time lookup of a singleton resource.
+     *
+     * @return the resource or null if none has been set
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Component> T resource(Class<T> type) {
+        Integer typeId = typeToId.get(type);
+        Component[] current = resources;
+        if (typeId == null || typeId >= current.length) {
+            return null;
+        }
+        return (T) current[typeId];
+    }
+
+    /**
+     * @return the removed resource or null if none was set
+     */
+    public synchronized <T extends Component> T removeResource(Class<T> type) {
+        T resource = resource(type);
+        if (resource != null) {
+            resources[typeToId.get(type)] = null;
+        }
+        return resource;
+    }
+
+    /**
+     * Returns the persistent query for entities that have ALL required components.
+     * The query is created on first use and shared by every caller asking for the same set of types.
+     * Safe to call from systems that are updated concurrently.
+     */
+    @SafeVarargs
+    public final synchronized Query query(Class<? extends Component>... requiredComponents) {
+        if (requiredComponents.length == 0) {
+            throw new IllegalArgumentException("Query needs at least one component type");
+        }
+        final int[] requiredTypeIds = new int[requiredComponents.length];
+        final BitSet required = new BitSet();
+        for (int i = 0; i < requiredComponents.length; i++) {
+            requiredTypeIds[i] = getOrRegisterTypeId(requiredComponents[i]);
+            required.set(requiredTypeIds[i]);
+        }
+
+        Query query = queries.get(required);
+        if (query == null) {
+            query = createQuery(requiredComponents.clone(), requiredTypeIds, required, new BitSet());
+            queries.put(required, query);
+        }
+        return query;
+    }
+
+    /**
+     * Returns the persistent query iterating the same types as the base query,
+     * narrowed down by additionally required and excluded types.
+     *
+     * @throws IllegalArgumentException if a type is both required and excluded
+     */
+    synchronized Query filteredQuery(Query base, Class<? extends Component>[] with,
+                                     Class<? extends Component>[] without) {
+        BitSet required = (BitSet) base.required().clone();
+        BitSet excluded = (BitSet) base.excluded().clone();
+        for (Class<? extends Component> type : with) {
+            required.set(getOrRegisterTypeId(type));
+        }
+        for (Class<? extends Component> type : without) {
+            excluded.set(getOrRegisterTypeId(type));
         }
+        if (required.intersects(excluded)) {
+            throw new IllegalArgumentException("A query can not both require and exclude the same type");
+        }
+        if (excluded.isEmpty() && required.equals(base.required())) {
+            return base;
+        }
+
+        FilteredQueryKey key = new FilteredQueryKey(List.of(base.types()), required, excluded);
+        Query query = filteredQueries.get(key);
+        if (query == null) {
+            query = createQuery(base.types(), base.typeIds(), required, excluded);
+            filteredQueries.put(key, query);
+        }
+        return query;
+    }
+
+    /**
+     * Calls the consumer for every entity that has the component, passing it in directly.
+     * Components may be modified, but entities must not gain or lose components during the pass.
+     */
+    public <A extends Component> void each(Class<A> typeA, EntityConsumer1<? super A> consumer) {
+        cachedQuery(typeA, null, null, null).each(typeA, consumer);
+    }
+
+    /**
+     * Calls the consumer for every entity that has both components, passing them in directly.
+     * Components may be modified, but entities must not gain or lose components during the pass.
+     */
+    public <A extends Component, B extends Component> void each(
+        Class<A> typeA, Class<B> typeB, EntityConsumer2<? super A, ? super B> consumer) {
+        cachedQuery(typeA, typeB, null, null).each(typeA, typeB, consumer);
+    }
+
+    /**
+     * Calls the consumer for every entity that has all three components, passing them in directly.
+     * Components may be modified, but entities must not gain or lose components during the pass.
+     */
+    public <A extends Component, B extends Component, C extends Component> void each(
+        Class<A> typeA, Class<B> typeB, Class<C> typeC, EntityConsumer3<? super A, ? super B, ? super C> consumer) {
+        cachedQuery(typeA, typeB, typeC, null).each(typeA, typeB, typeC, consumer);
+    }
+
+    /**
+     * Calls the consumer for every entity that has all four components, passing them in directly.
+     * Components may be modified, but entities must not gain or lose components during the pass.
+     */
+    public <A extends Component, B extends Component, C extends Component, D extends Component> void each(
+        Class<A> typeA, Class<B> typeB, Class<C> typeC, Class<D> typeD,
+        EntityConsumer4<? super A, ? super B, ? super C, ? super D> consumer) {
+        cachedQuery(typeA, typeB, typeC, typeD).each(typeA, typeB, typeC, typeD, consumer);
     }
 
     /**
      * Queries entities that have ALL required components.
+     * Builds a new list of views on every call; prefer {@link #query(Class[])} in code that runs every frame.
      */
     @SafeVarargs
     public final List<EntityView> view(Class<? extends Component>... requiredComponents) {
         if (requiredComponents.length == 0) {
             return Collections.emptyList();
         }
+        Query query = query(requiredComponents);
 
-        // Resolve type ids once (and bail out early if any requested component type doesn't exist)
-        final int[] requiredTypeIds = new int[requiredComponents.length];
-        for (int i = 0; i < requiredComponents.length; i++) {
-            Integer typeId = typeToId.get(requiredComponents[i]);
-            if (typeId == null) {
-                return Collections.emptyList(); // no such component registered
+        List<EntityView> results = new ArrayList<>(query.size());
+        for (int i = 0; i < query.archetypeCount(); i++) {
+            Archetype archetype = query.archetype(i);
+            int[] columns = query.columns(i);
+            int[] entities = archetype.entities();
+            for (int row = 0; row < archetype.size(); row++) {
+                results.add(buildEntityView(entities[row], archetype, row, query, columns));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Helper that reads the components straight from the archetype columns when building the view
+     */
+    private EntityView buildEntityView(int entityId, Archetype archetype, int row, Query query, int[] columns) {
+        Class<? extends Component>[] types = query.types();
+        Component[] comps = new Component[types.length];
+        for (int i = 0; i < types.length; i++) {
+            comps[i] = columns[i] >= 0 ? archetype.get(row, columns[i]) : tagInstance(query.typeIds()[i]);
+        }
+        return EntityView.of(entityId, types, comps);
+    }
+
+    /**
+     * Looks up the query for up to four component types (unused ones are null).
+     * Does not allocate when the query already exists.
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized Query cachedQuery(Class<? extends Component> typeA, Class<? extends Component> typeB,
+                                           Class<? extends Component> typeC, Class<? extends Component> typeD) {
+        queryKey.clear();
+        if (addToQueryKey(typeA) && addToQueryKey(typeB) && addToQueryKey(typeC) && addToQueryKey(typeD)) {
+            Query query = queries.get(queryKey);
+            if (query != null) {
+                return query;
+            }
+        }
+        Class<? extends Component>[] types = Stream.of(typeA, typeB, typeC, typeD)
+            .filter(Objects::nonNull)
+            .toArray(Class[]::new);
+        return query(types);
+    }
+
+    /**
+     * @return false if the component type has never been registered
+     */
+    private boolean addToQueryKey(Class<? extends Component> type) {
+        if (type == null) {
+            return true;
+        }
+        Integer typeId = typeToId.get(type);
+        if (typeId == null) {
+            return false;
+        }
+        queryKey.set(typeId);
+        return true;
+    }
+
+    /**
+     * Makes the component type part of snapshots. {@link Transform} is registered by default.
+     */
+    public synchronized <T extends Component> void registerCodec(Class<T> type, ComponentCodec<T> codec) {
+        int typeId = getOrRegisterTypeId(type);
+        if (typeId >= codecs.length) {
+            codecs = Arrays.copyOf(codecs, Math.max(typeId + 1, codecs.length * 2));
+        }
+        if (codecs[typeId] == null) {
+            codecTypes.add(type);
+            codecTypesByName.put(type.getName(), type);
+        }
+        codecs[typeId] = codec;
+    }
+
+    /**
+     * Writes every entity with its Id and the resources into a binary snapshot, overwriting the buffer contents.
+     * Only component types with a registered codec are written, other components are left out.
+     * Tags are written once per archetype with the codec of their type, as the instance shared by the entities.
+     * Must be called from the main thread while no systems are updating, e.g. next to {@link #sync()}.
+     *
+     * @param buffer buffer to write into, preferably direct
+     * @return the snapshot ready to be read, which is a larger direct buffer if the given one was too small
+     */
+    public ByteBuffer snapshot(ByteBuffer buffer) {
+        while (true) {
+            try {
+                buffer.clear();
+                writeSnapshot(buffer);
+                return buffer.flip();
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, 1024)).order(buffer.order());
+            }
+        }
+    }
+
+    /**
+     * Replaces all entities and the snapshotted resources with the contents of a snapshot.
+     * Entities get back the Id-s they had when the snapshot was taken, so handles stored in components stay valid.
+     * Components without a codec are not part of snapshots and have to be added again.
+     *
+     * @param buffer snapshot returned by {@link #snapshot(ByteBuffer)}, read from its position
+     * @throws IllegalStateException    if commands are waiting for playback
+     * @throws IllegalArgumentException if the buffer is not a snapshot or contains a type without a codec
+     */
+    public void restore(ByteBuffer buffer) {
+        checkStructuralChangesAllowed();
+        if (!commands.isEmpty()) {
+            throw new IllegalStateException("Recorded commands must be played back before restoring a snapshot");
+        }
+        if (buffer.getInt() != SNAPSHOT_MAGIC) {
+            throw new IllegalArgumentException("Buffer does not contain a registry snapshot");
+        }
+        int[] snapshotTypeIds = new int[buffer.getInt()];
+        for (int i = 0; i < snapshotTypeIds.length; i++) {
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            Class<? extends Component> type = codecTypesByName.get(new String(name, StandardCharsets.UTF_8));
+            if (type == null) {
+                throw new IllegalArgumentException(
+                    "No codec registered for " + new String(name, StandardCharsets.UTF_8));
             }
-            requiredTypeIds[i] = typeId;
+            snapshotTypeIds[i] = typeToId.get(type);
         }
 
-        List<EntityView> results = new ArrayList<>();
-        // Iterate entity -> mask entries
-        for (Entry<Integer, BitSet> entry : entityComponentMasks.entrySet()) {
-            int entityId = entry.getKey();
-            BitSet mask = entry.getValue();
+        removeAllEntities();
+        entityIdGenerator.read(buffer);
+        int tick = changeTick.get();
+        int transformTypeId = getOrRegisterTypeId(Transform.class);
+        BitSet signature = new BitSet();
+        int archetypeCount = buffer.getInt();
+        for (int a = 0; a < archetypeCount; a++) {
+            int[] typeIds = new int[buffer.getInt()];
+            signature.clear();
+            for (int t = 0; t < typeIds.length; t++) {
+                typeIds[t] = snapshotTypeIds[buffer.getInt()];
+                signature.set(typeIds[t]);
+            }
+            Archetype archetype = getOrCreateArchetype(signature);
+            int count = buffer.getInt();
+            int firstRow = archetype.size();
+            archetype.ensureCapacity(firstRow + count);
+            for (int i = 0; i < count; i++) {
+                int entityId = buffer.getInt();
+                int index = EntityIdGenerator.index(entityId);
+                ensureEntityCapacity(index);
+                entityIds[index] = entityId;
+                entityArchetypes[index] = archetype;
+                entityRows[index] = archetype.addRow(entityId);
+            }
+            for (int typeId : typeIds) {
+                ComponentCodec<Component> codec = codec(typeId);
+                int column = archetype.columnOf(typeId);
+                if (column < 0) {
+                    // read even when the instance is known, the writer always stores it
+                    registerTagInstance(typeId, codec.read(buffer));
+                    for (int row = firstRow; row < firstRow + count; row++) {
+                        onComponentAdded(archetype.entities()[row], typeId, tagInstance(typeId));
+                    }
+                    continue;
+                }
+                if (typeId == transformTypeId) {
+                    transforms.reserve(count);
+                }
+                for (int row = firstRow; row < firstRow + count; row++) {
+                    Component component = codec.read(buffer);
+                    archetype.set(row, column, component);
+                    archetype.setChangeTick(row, column, tick);
+                    onComponentAdded(archetype.entities()[row], typeId, component);
+                }
+            }
+        }
+
+        int resourceCount = buffer.getInt();
+        for (int i = 0; i < resourceCount; i++) {
+            setResource(codec(snapshotTypeIds[buffer.getInt()]).read(buffer));
+        }
+    }
+
+    /**
+     * Buffer for structural changes that must not happen immediately, e.g. while iterating a query.
+     */
+    public EntityCommandBuffer commands() {
+        return commands;
+    }
+
+    /**
+     * Sync point of the registry: plays back the recorded commands and notifies the observers of every component
+     * added or removed since the previous sync point.
+     * Called by the application once per frame between the update and render phases.
+     */
+    public void sync() {
+        commands.playback();
+        observers.deliver();
+    }
+
+    /**
+     * Observes components of the type being added to entities, including replaced components and entities created
+     * by {@link #spawn(int, EntityArchetype, SpawnInitializer)} or {@link #restore(ByteBuffer)}.
+     * Additions are delivered in batches at the next {@link #sync()}, by then the entity may have changed again.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Component> ComponentObserver onAdd(Class<T> type, EntityConsumer1<? super T> observer) {
+        return observers.add(getOrRegisterTypeId(type), true, (EntityConsumer1<Component>) observer);
+    }
+
+    /**
+     * Observes components of the type being removed from entities, including replaced components and destroyed
+     * entities. Removals are delivered in batches at the next {@link #sync()} together with the removed component.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Component> ComponentObserver onRemove(Class<T> type, EntityConsumer1<? super T> observer) {
+        return observers.add(getOrRegisterTypeId(type), false, (EntityConsumer1<Component>) observer);
+    }
+
+    /**
+     * Packed transform data of every entity in the registry.
+     */
+    public TransformStore transforms() {
+        return transforms;
+    }
 
-            // Check all required bits are present in the entity mask
-            boolean matches = true;
-            for (int typeId : requiredTypeIds) {
-                if (!mask.get(typeId)) { // BitSet.get is cheap and doesn't allocate
-                    matches = false;
-                    break;
+    /**
+     * Keeps the data of a tag type in off-heap memory with the given layout. Every entity with the tag, including
+     * entities that already have it, owns a zero-initialized slot in the returned store until the tag is removed.
+     * Off-heap data is not part of snapshots.
+     *
+     * @return the new store, or the store already registered for the type
+     * @throws IllegalArgumentException if a store with a different layout is registered for the type
+     */
+    public synchronized OffHeapStore registerOffHeapStore(Class<? extends Tag> type, MemoryLayout layout) {
+        checkStructuralChangesAllowed();
+        int typeId = getOrRegisterTypeId(type);
+        OffHeapStore existing = offHeapStore(typeId);
+        if (existing != null) {
+            if (!existing.layout().equals(layout)) {
+                throw new IllegalArgumentException(
+                    "Off-heap store of " + type.getSimpleName() + " is registered with a different layout");
+            }
+            return existing;
+        }
+        OffHeapStore store = new OffHeapStore(layout);
+        for (Archetype archetype : archetypes) {
+            if (archetype.has(typeId)) {
+                for (int row = 0; row < archetype.size(); row++) {
+                    store.add(archetype.entities()[row]);
                 }
             }
+        }
+        if (typeId >= offHeapStores.length) {
+            offHeapStores = Arrays.copyOf(offHeapStores, Math.max(typeId + 1, offHeapStores.length * 2));
+        }
+        offHeapStores[typeId] = store;
+        return store;
+    }
+
+    /**
+     * @return the off-heap store of the tag type or null if none is registered
+     */
+    public OffHeapStore offHeapStore(Class<? extends Tag> type) {
+        Integer typeId = typeToId.get(type);
+        return typeId == null ? null : offHeapStore(typeId);
+    }
+
+    /**
+     * Unregisters the off-heap store of the tag type and frees its memory. Entities keep the tag.
+     */
+    public synchronized void removeOffHeapStore(Class<? extends Tag> type) {
+        checkStructuralChangesAllowed();
+        Integer typeId = typeToId.get(type);
+        OffHeapStore store = typeId == null ? null : offHeapStore(typeId);
+        if (store != null) {
+            offHeapStores[typeId] = null;
+            store.close();
+        }
+    }
 
-            if (matches) {
-                results.add(buildEntityView(entityId, requiredComponents, requiredTypeIds));
+    /**
+     * Unregisters every off-heap store and frees its memory. Entities keep their tags and the registry stays usable,
+     * stores registered afterward must be closed again.
+     */
+    @Override
+    public synchronized void close() {
+        checkStructuralChangesAllowed();
+        for (int typeId = 0; typeId < offHeapStores.length; typeId++) {
+            OffHeapStore store = offHeapStores[typeId];
+            if (store != null) {
+                offHeapStores[typeId] = null;
+                store.close();
             }
         }
-        return results;
+    }
+
+    private OffHeapStore offHeapStore(int typeId) {
+        OffHeapStore[] current = offHeapStores;
+        return typeId < current.length ? current[typeId] : null;
+    }
+
+    private void onComponentAdded(int entityId, int typeId, Component component) {
+        if (component instanceof Transform transform) {
+            transforms.attach(transform);
+        }
+        OffHeapStore offHeapStore = offHeapStore(typeId);
+        if (offHeapStore != null) {
+            offHeapStore.add(entityId);
+        }
+        observers.record(true, typeId, entityId, component);
+    }
+
+    private void onComponentRemoved(int entityId, int typeId, Component component) {
+        if (component instanceof Transform transform) {
+            transforms.detach(transform);
+        }
+        OffHeapStore offHeapStore = offHeapStore(typeId);
+        if (offHeapStore != null) {
+            offHeapStore.remove(entityId);
+        }
+        observers.record(false, typeId, entityId, component);
     }
 
     /**
-     * Helper that avoids re-looking-up the type ids for each component when building the view
+     * @return archetype of the entity or null if the entity is not alive
      */
-    private EntityView buildEntityView(int entityId, Class<? extends Component>[] requiredComponents, int[] requiredTypeIds) {
-        Component[] comps = new Component[requiredComponents.length];
-        for (int i = 0; i < requiredComponents.length; i++) {
-            comps[i] = stores.get(requiredTypeIds[i]).get(entityId);
+    private Archetype getArchetype(int entityId) {
+        int index = EntityIdGenerator.index(entityId);
+        if (entityId <= 0 || index >= entityIds.length || entityIds[index] != entityId) {
+            return null;
+        }
+        return entityArchetypes[index];
+    }
+
+    /**
+     * Allocates an Id without placing the entity in storage yet
+     */
+    int reserveEntity() {
+        return entityIdGenerator.nextId();
+    }
+
+    /**
+     * Makes a reserved entity alive by placing it into the empty archetype
+     */
+    void placeEntity(int entityId) {
+        checkStructuralChangesAllowed();
+        int index = EntityIdGenerator.index(entityId);
+        ensureEntityCapacity(index);
+        entityIds[index] = entityId;
+        entityArchetypes[index] = emptyArchetype;
+        entityRows[index] = emptyArchetype.addRow(entityId);
+    }
+
+    /**
+     * @return the shared instance of a tag type or null if the tag has never been added
+     */
+    Component tagInstance(int typeId) {
+        return typeId < tagInstances.length ? tagInstances[typeId] : null;
+    }
+
+    /**
+     * Remembers the instance as the shared instance of the tag type, unless one is already known
+     */
+    void registerTagInstance(int typeId, Component tag) {
+        if (typeId >= tagInstances.length) {
+            tagInstances = Arrays.copyOf(tagInstances, Math.max(typeId + 1, tagInstances.length * 2));
+        }
+        if (tagInstances[typeId] == null) {
+            tagInstances[typeId] = tag;
+            for (Archetype archetype : archetypes) {
+                if (archetype.tagColumn(typeId) != null) {
+                    archetype.fillTagColumn(typeId, tag);
+                }
+            }
+        }
+    }
+
+    boolean isTag(int typeId) {
+        return tagTypeIds.get(typeId);
+    }
+
+    /**
+     * Moves to the next change tick, so that changes made after a {@link Changed} pass are newer than the pass.
+     *
+     * @return the tick before advancing
+     */
+    int advanceChangeTick() {
+        int tick = changeTick.incrementAndGet();
+        transforms.setChangeTick(tick);
+        return tick - 1;
+    }
+
+    void beginParallelPass() {
+        parallelPasses.incrementAndGet();
+    }
+
+    void endParallelPass() {
+        parallelPasses.decrementAndGet();
+    }
+
+    /**
+     * @throws IllegalStateException while a parallel pass over a query is running
+     */
+    private void checkStructuralChangesAllowed() {
+        if (parallelPasses.get() > 0) {
+            throw new IllegalStateException(
+                "Structural changes are not allowed during a parallel pass, record them into commands() instead");
+        }
+    }
+
+    private Archetype addTransition(Archetype source, int typeId) {
+        Archetype target = source.getAddTransition(typeId);
+        if (target == null) {
+            BitSet signature = (BitSet) source.signature().clone();
+            signature.set(typeId);
+            target = getOrCreateArchetype(signature);
+            source.setAddTransition(typeId, target);
+        }
+        return target;
+    }
+
+    private Archetype removeTransition(Archetype source, int typeId) {
+        Archetype target = source.getRemoveTransition(typeId);
+        if (target == null) {
+            BitSet signature = (BitSet) source.signature().clone();
+            signature.clear(typeId);
+            target = getOrCreateArchetype(signature);
+            source.setRemoveTransition(typeId, target);
+        }
+        return target;
+    }
+
+    private Archetype getOrCreateArchetype(BitSet signature) {
+        Archetype archetype = archetypesBySignature.get(signature);
+        if (archetype == null) {
+            archetype = new Archetype(archetypes.size(), signature, tagTypeIds);
+            archetypes.add(archetype);
+            archetypesBySignature.put(archetype.signature(), archetype);
+            for (Query query : queries.values()) {
+                query.match(archetype);
+            }
+            for (Query query : filteredQueries.values()) {
+                query.match(archetype);
+            }
+        }
+        return archetype;
+    }
+
+    private Query createQuery(Class<? extends Component>[] types, int[] typeIds, BitSet required, BitSet excluded) {
+        Query query = new Query(this, types, typeIds, required, excluded);
+        for (Archetype archetype : archetypes) {
+            query.match(archetype);
+        }
+        return query;
+    }
+
+    /**
+     * Puts an added component into its column, or only remembers the shared instance for tags
+     */
+    private void storeComponent(Archetype archetype, int row, int typeId, Component component) {
+        int column = archetype.columnOf(typeId);
+        if (column < 0) {
+            registerTagInstance(typeId, component);
+            onComponentAdded(archetype.entities()[row], typeId, tagInstance(typeId));
+            return;
+        }
+        archetype.set(row, column, component);
+        archetype.setChangeTick(row, column, changeTick.get());
+        onComponentAdded(archetype.entities()[row], typeId, component);
+    }
+
+    /**
+     * Moves an entity with all its shared components from one archetype to another.
+     *
+     * @return row of the entity in the target archetype
+     */
+    private int moveEntity(int entityId, Archetype from, Archetype to) {
+        int index = EntityIdGenerator.index(entityId);
+        int fromRow = entityRows[index];
+        int toRow = to.addRow(entityId);
+        from.copyRowTo(fromRow, to, toRow);
+        removeFromArchetype(entityId, from);
+        entityArchetypes[index] = to;
+        entityRows[index] = toRow;
+        return toRow;
+    }
+
+    private void removeFromArchetype(int entityId, Archetype archetype) {
+        int row = entityRows[EntityIdGenerator.index(entityId)];
+        int movedEntity = archetype.removeRow(row);
+        if (movedEntity >= 0) {
+            entityRows[EntityIdGenerator.index(movedEntity)] = row;
+        }
+    }
+
+    private void ensureEntityCapacity(int index) {
+        if (index < entityArchetypes.length) {
+            return;
+        }
+        int newCapacity = Math.max(index + 1, entityArchetypes.length * 2);
+        entityIds = Arrays.copyOf(entityIds, newCapacity);
+        entityArchetypes = Arrays.copyOf(entityArchetypes, newCapacity);
+        entityRows = Arrays.copyOf(entityRows, newCapacity);
+    }
+
+    private void writeSnapshot(ByteBuffer buffer) {
+        buffer.putInt(SNAPSHOT_MAGIC);
+        int[] snapshotTypeIds = new int[nextTypeId.get()];
+        Arrays.fill(snapshotTypeIds, -1);
+        buffer.putInt(codecTypes.size());
+        for (int i = 0; i < codecTypes.size(); i++) {
+            Class<? extends Component> type = codecTypes.get(i);
+            snapshotTypeIds[typeToId.get(type)] = i;
+            byte[] name = type.getName().getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) name.length).put(name);
+        }
+
+        entityIdGenerator.write(buffer);
+        int archetypeCount = 0;
+        for (Archetype archetype : archetypes) {
+            if (archetype.size() > 0) {
+                archetypeCount++;
+            }
         }
-        return EntityView.of(entityId, requiredComponents, comps);
+        buffer.putInt(archetypeCount);
+        for (Archetype archetype : archetypes) {
+            int count = archetype.size();
+            if (count == 0) {
+                continue;
+            }
+            BitSet signature = archetype.signature();
+            int typeCount = 0;
+            for (int typeId = signature.nextSetBit(0); typeId >= 0; typeId = signature.nextSetBit(typeId + 1)) {
+                if (snapshotTypeIds[typeId] >= 0) {
+                    typeCount++;
+                }
+            }
+            buffer.putInt(typeCount);
+            for (int typeId = signature.nextSetBit(0); typeId >= 0; typeId = signature.nextSetBit(typeId + 1)) {
+                if (snapshotTypeIds[typeId] >= 0) {
+                    buffer.putInt(snapshotTypeIds[typeId]);
+                }
+            }
+            buffer.putInt(count);
+            buffer.asIntBuffer().put(archetype.entities(), 0, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            for (int typeId = signature.nextSetBit(0); typeId >= 0; typeId = signature.nextSetBit(typeId + 1)) {
+                int column = archetype.columnOf(typeId);
+                if (snapshotTypeIds[typeId] < 0) {
+                    continue;
+                }
+                ComponentCodec<Component> codec = codec(typeId);
+                if (column < 0) {
+                    codec.write(tagInstance(typeId), buffer);
+                    continue;
+                }
+                Component[] components = archetype.column(column);
+                for (int row = 0; row < count; row++) {
+                    codec.write(components[row], buffer);
+                }
+            }
+        }
+
+        int resourceCount = 0;
+        for (int typeId = 0; typeId < Math.min(resources.length, snapshotTypeIds.length); typeId++) {
+            if (resources[typeId] != null && snapshotTypeIds[typeId] >= 0) {
+                resourceCount++;
+            }
+        }
+        buffer.putInt(resourceCount);
+        for (int typeId = 0; typeId < Math.min(resources.length, snapshotTypeIds.length); typeId++) {
+            if (resources[typeId] != null && snapshotTypeIds[typeId] >= 0) {
+                buffer.putInt(snapshotTypeIds[typeId]);
+                codec(typeId).write(resources[typeId], buffer);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ComponentCodec<Component> codec(int typeId) {
+        return (ComponentCodec<Component>) codecs[typeId];
+    }
+
+    /**
+     * Empties every archetype and forgets the location of all entities, without recycling their Id-s
+     */
+    private void removeAllEntities() {
+        transforms.detachAll();
+        for (OffHeapStore offHeapStore : offHeapStores) {
+            if (offHeapStore != null) {
+                offHeapStore.clear();
+            }
+        }
+        for (Archetype archetype : archetypes) {
+            BitSet signature = archetype.signature();
+            for (int typeId = signature.nextSetBit(0); typeId >= 0; typeId = signature.nextSetBit(typeId + 1)) {
+                if (!observers.isObserved(typeId, false)) {
+                    continue;
+                }
+                int column = archetype.columnOf(typeId);
+                for (int row = 0; row < archetype.size(); row++) {
+                    observers.record(false, typeId, archetype.entities()[row],
+                        column < 0 ? tagInstance(typeId) : archetype.get(row, column));
+                }
+            }
+            archetype.clear();
+        }
+        Arrays.fill(entityIds, 0);
+        Arrays.fill(entityArchetypes, null);
+    }
+
+    private record FilteredQueryKey(List<Class<? extends Component>> types, BitSet required, BitSet excluded) {
     }
 }
@@ -0,0 +1,45 @@
+package org.chapzlock.core.registry;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Handle to the storage of entities with an exact set of component types, used for bulk spawning.
+ * Obtained through {@link ComponentRegistry#archetype(Class[])}.
+ */
+public final class EntityArchetype {
+    private final ComponentRegistry registry;
+    private final Archetype archetype;
+    private final Class<? extends Component>[] types;
+    private final int[] typeIds;
+
+    EntityArchetype(ComponentRegistry registry, Archetype archetype, Class<? extends Component>[] types,
+                    int[] typeIds) {
+        this.registry = registry;
+        this.archetype = archetype;
+        this.types = types;
+        this.typeIds = typeIds;
+    }
+
+    ComponentRegistry registry() {
+        return registry;
+    }
+
+    Archetype archetype() {
+        return archetype;
+    }
+
+    Class<? extends Component>[] types() {
+        return types;
+    }
+
+    int[] typeIds() {
+        return typeIds;
+    }
+
+    /**
+     * @return number of entities currently stored with exactly these component types
+     */
+    public int size() {
+        return archetype.size();
+    }
+}
@@ -0,0 +1,178 @@
+package org.chapzlock.core.registry;
+
+import java.util.Arrays;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Records structural changes (spawning and destroying entities, adding and removing components)
+ * so they can be applied later in one batch.
+ * <p>
+ * Changing the structure of the registry moves entities between archetypes, which must not happen while a query is
+ * being iterated. Systems record their changes here instead and the registry plays them back at the sync point
+ * in the main loop (see {@link ComponentRegistry#sync()}). Consecutive component changes of the same entity are
+ * merged so the entity moves to its final archetype only once.
+ * <p>
+ * Recording is thread safe, playback happens on the main thread.
+ */
+public final class EntityCommandBuffer {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final byte SPAWN = 0;
+    private static final byte DESTROY = 1;
+    private static final byte ADD = 2;
+    private static final byte REMOVE = 3;
+
+    private final ComponentRegistry registry;
+
+    private byte[] operations = new byte[INITIAL_CAPACITY];
+    private int[] entities = new int[INITIAL_CAPACITY];
+    /**
+     * Component to add or component type to remove, null for entity commands
+     */
+    private Object[] payloads = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Scratch storage used to merge the component changes of one entity during playback
+     */
+    private Component[] added = new Component[8];
+    @SuppressWarnings("unchecked")
+    private Class<? extends Component>[] removed = new Class[8];
+
+    EntityCommandBuffer(ComponentRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Reserves an Id for a new entity. The entity becomes alive when the buffer is played back,
+     * the returned Id can already be used to record further commands.
+     *
+     * @return Id of the entity to be spawned
+     */
+    public int spawn() {
+        int entityId = registry.reserveEntity();
+        record(SPAWN, entityId, null);
+        return entityId;
+    }
+
+    public void destroy(int entityId) {
+        record(DESTROY, entityId, null);
+    }
+
+    public void addComponent(int entityId, Component component) {
+        record(ADD, entityId, component);
+    }
+
+    @SafeVarargs
+    public final <T extends Component> void addComponents(int entityId, T... components) {
+        for (T component : components) {
+            addComponent(entityId, component);
+        }
+    }
+
+    public void removeComponent(int entityId, Class<? extends Component> type) {
+        record(REMOVE, entityId, type);
+    }
+
+    /**
+     * @return number of recorded commands
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Applies all recorded commands in recording order and clears the buffer.
+     * Commands targeting entities that are no longer alive are ignored.
+     */
+    synchronized void playback() {
+        int i = 0;
+        while (i < size) {
+            int entityId = entities[i];
+            switch (operations[i]) {
+                case SPAWN -> {
+                    registry.placeEntity(entityId);
+                    i++;
+                }
+                case DESTROY -> {
+                    registry.destroyEntity(entityId);
+                    i++;
+                }
+                default -> i = playbackComponentChanges(i);
+            }
+        }
+        Arrays.fill(payloads, 0, size, null);
+        Arrays.fill(added, null);
+        Arrays.fill(removed, null);
+        size = 0;
+    }
+
+    /**
+     * Merges the run of component commands of one entity starting at the index and applies it as a single move.
+     *
+     * @return index of the first command after the run
+     */
+    @SuppressWarnings("unchecked")
+    private int playbackComponentChanges(int start) {
+        int entityId = entities[start];
+        int addedCount = 0;
+        int removedCount = 0;
+        int i = start;
+        for (; i < size && entities[i] == entityId && operations[i] >= ADD; i++) {
+            if (operations[i] == ADD) {
+                Component component = (Component) payloads[i];
+                removedCount = removeType(removed, removedCount, component.getClass());
+                addedCount = removeType(added, addedCount, component.getClass());
+                added = ensureCapacity(added, addedCount + 1);
+                added[addedCount++] = component;
+            } else {
+                Class<? extends Component> type = (Class<? extends Component>) payloads[i];
+                addedCount = removeType(added, addedCount, type);
+                removedCount = removeType(removed, removedCount, type);
+                removed = ensureCapacity(removed, removedCount + 1);
+                removed[removedCount++] = type;
+            }
+        }
+        registry.changeComponents(entityId, added, addedCount, removed, removedCount);
+        return i;
+    }
+
+    private synchronized void record(byte operation, int entityId, Object payload) {
+        if (size == operations.length) {
+            int newCapacity = size * 2;
+            operations = Arrays.copyOf(operations, newCapacity);
+            entities = Arrays.copyOf(entities, newCapacity);
+            payloads = Arrays.copyOf(payloads, newCapacity);
+        }
+        operations[size] = operation;
+        entities[size] = entityId;
+        payloads[size] = payload;
+        size++;
+    }
+
+    /**
+     * Removes the entry matching the component type, keeping the order of the rest
+     *
+     * @return new number of entries
+     */
+    private static int removeType(Object[] entries, int count, Class<?> type) {
+        for (int i = 0; i < count; i++) {
+            Object entry = entries[i];
+            if (entry == type || entry.getClass() == type) {
+                System.arraycopy(entries, i + 1, entries, i, count - i - 1);
+                entries[count - 1] = null;
+                return count - 1;
+            }
+        }
+        return count;
+    }
+
+    private static <T> T[] ensureCapacity(T[] array, int capacity) {
+        return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+    }
+}
@@ -0,0 +1,9 @@
+package org.chapzlock.core.registry;
+
+/**
+ * Callback for typed query iteration. Receives the entity id and its components directly.
+ */
+@FunctionalInterface
+public interface EntityConsumer4<A, B, C, D> {
+    void accept(int entityId, A first, B second, C third, D fourth);
+}
@@ -0,0 +1,109 @@
+package org.chapzlock.core.registry;
+
+import java.util.Arrays;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Observers of component additions and removals, together with the changes waiting to be delivered to them.
+ * <p>
+ * Changes are only recorded for types that have at least one observer, so unobserved types cost a single array
+ * lookup. Observer arrays are copied on (un)subscription, which keeps delivery free of allocations and safe against
+ * observers that unsubscribe while being notified.
+ */
+final class ObserverQueue {
+    private static final ComponentObserver[] NONE = new ComponentObserver[0];
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Observers indexed by type id
+     */
+    private ComponentObserver[][] addObservers = new ComponentObserver[0][];
+    private ComponentObserver[][] removeObservers = new ComponentObserver[0][];
+
+    private boolean[] added = new boolean[INITIAL_CAPACITY];
+    private int[] typeIds = new int[INITIAL_CAPACITY];
+    private int[] entities = new int[INITIAL_CAPACITY];
+    private Component[] components = new Component[INITIAL_CAPACITY];
+    private int size;
+
+    synchronized ComponentObserver add(int typeId, boolean onAdd, EntityConsumer1<Component> consumer) {
+        ComponentObserver observer = new ComponentObserver(this, typeId, onAdd, consumer);
+        if (onAdd) {
+            addObservers = append(addObservers, observer);
+        } else {
+            removeObservers = append(removeObservers, observer);
+        }
+        return observer;
+    }
+
+    synchronized void remove(ComponentObserver observer) {
+        ComponentObserver[][] observers = observer.isOnAdd() ? addObservers : removeObservers;
+        ComponentObserver[] current = observers[observer.typeId()];
+        int index = Arrays.asList(current).indexOf(observer);
+        if (index < 0) {
+            return;
+        }
+        ComponentObserver[] remaining = new ComponentObserver[current.length - 1];
+        System.arraycopy(current, 0, remaining, 0, index);
+        System.arraycopy(current, index + 1, remaining, index, remaining.length - index);
+        observers[observer.typeId()] = remaining.length == 0 ? null : remaining;
+    }
+
+    boolean isObserved(int typeId, boolean onAdd) {
+        ComponentObserver[][] observers = onAdd ? addObservers : removeObservers;
+        return typeId < observers.length && observers[typeId] != null;
+    }
+
+    /**
+     * Remembers the change if the type is observed
+     */
+    void record(boolean onAdd, int typeId, int entityId, Component component) {
+        if (!isObserved(typeId, onAdd)) {
+            return;
+        }
+        if (size == entities.length) {
+            int newCapacity = size * 2;
+            added = Arrays.copyOf(added, newCapacity);
+            typeIds = Arrays.copyOf(typeIds, newCapacity);
+            entities = Arrays.copyOf(entities, newCapacity);
+            components = Arrays.copyOf(components, newCapacity);
+        }
+        added[size] = onAdd;
+        typeIds[size] = typeId;
+        entities[size] = entityId;
+        components[size] = component;
+        size++;
+    }
+
+    /**
+     * Notifies the observers of every recorded change in recording order and clears the queue.
+     * Changes made by observers while being notified are delivered in the same call.
+     */
+    void deliver() {
+        for (int i = 0; i < size; i++) {
+            ComponentObserver[][] observers = added[i] ? addObservers : removeObservers;
+            ComponentObserver[] typeObservers = typeIds[i] < observers.length ? observers[typeIds[i]] : null;
+            if (typeObservers == null) {
+                continue;
+            }
+            for (ComponentObserver observer : typeObservers) {
+                observer.notify(entities[i], components[i]);
+            }
+        }
+        Arrays.fill(components, 0, size, null);
+        size = 0;
+    }
+
+    private static ComponentObserver[][] append(ComponentObserver[][] observers, ComponentObserver observer) {
+        int typeId = observer.typeId();
+        if (typeId >= observers.length) {
+            observers = Arrays.copyOf(observers, typeId + 1);
+        }
+        ComponentObserver[] current = observers[typeId] == null ? NONE : observers[typeId];
+        ComponentObserver[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = observer;
+        observers[typeId] = grown;
+        return observers;
+    }
+}
@@ -0,0 +1,98 @@
+package org.chapzlock.core.registry;
+
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
+
+/**
+ * Reusable accessor for one slot of an {@link OffHeapStore} at a time.
+ * <p>
+ * Subclasses expose the fields of their layout as getters and setters using field offsets resolved once:
+ * <pre>{@code
+ * class ParticleData extends OffHeapFlyweight {
+ *     static final StructLayout LAYOUT = MemoryLayout.structLayout(
+ *         JAVA_FLOAT.withName("x"), JAVA_FLOAT.withName("y"), JAVA_FLOAT.withName("z"), JAVA_FLOAT.withName("life"));
+ *     private static final long LIFE = offsetOf(LAYOUT, "life");
+ *
+ *     float life() { return getFloat(LIFE); }
+ *     void life(float value) { setFloat(LIFE, value); }
+ * }
+ * }</pre>
+ * A flyweight must be moved again after the store grew, it throws on access while still pointing at freed memory.
+ */
+public abstract class OffHeapFlyweight {
+    private final OffHeapStore store;
+    private MemorySegment segment;
+    private long offset;
+
+    protected OffHeapFlyweight(OffHeapStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Resolves the byte offset of a named field of a struct layout
+     */
+    protected static long offsetOf(MemoryLayout layout, String field) {
+        return layout.byteOffset(MemoryLayout.PathElement.groupElement(field));
+    }
+
+    public OffHeapStore store() {
+        return store;
+    }
+
+    /**
+     * Points the flyweight at a slot, for sweeping all slots from 0 to {@link OffHeapStore#size()}
+     */
+    public void moveTo(int slot) {
+        Objects.checkIndex(slot, store.size());
+        segment = store.segment();
+        offset = store.offset(slot);
+    }
+
+    /**
+     * Points the flyweight at the slot of an entity
+     *
+     * @return false if the entity has no slot in the store
+     */
+    public boolean moveToEntity(int entityId) {
+        int slot = store.slot(entityId);
+        if (slot < 0) {
+            return false;
+        }
+        moveTo(slot);
+        return true;
+    }
+
+    protected float getFloat(long fieldOffset) {
+        return segment.get(ValueLayout.JAVA_FLOAT, offset + fieldOffset);
+    }
+
+    protected void setFloat(long fieldOffset, float value) {
+        segment.set(ValueLayout.JAVA_FLOAT, offset + fieldOffset, value);
+    }
+
+    protected int getInt(long fieldOffset) {
+        return segment.get(ValueLayout.JAVA_INT, offset + fieldOffset);
+    }
+
+    protected void setInt(long fieldOffset, int value) {
+        segment.set(ValueLayout.JAVA_INT, offset + fieldOffset, value);
+    }
+
+    protected long getLong(long fieldOffset) {
+        return segment.get(ValueLayout.JAVA_LONG, offset + fieldOffset);
+    }
+
+    protected void setLong(long fieldOffset, long value) {
+        segment.set(ValueLayout.JAVA_LONG, offset + fieldOffset, value);
+    }
+
+    protected double getDouble(long fieldOffset) {
+        return segment.get(ValueLayout.JAVA_DOUBLE, offset + fieldOffset);
+    }
+
+    protected void setDouble(long fieldOffset, double value) {
+        segment.set(ValueLayout.JAVA_DOUBLE, offset + fieldOffset, value);
+    }
+}
@@ -0,0 +1,189 @@
+package org.chapzlock.core.registry;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+
+import org.chapzlock.core.application.Tag;
+import org.chapzlock.core.entity.EntityIdGenerator;
+
+/**
+ * Off-heap storage for fixed-layout component data, backed by the Foreign Memory API.
+ * <p>
+ * A store is registered for a {@link Tag} type with {@link ComponentRegistry#registerOffHeapStore(Class, MemoryLayout)}.
+ * Every entity with the tag owns one zero-initialized slot of the layout, slots are packed without holes into a
+ * single native {@link MemorySegment}. No object exists per entity, so very large populations like particles or
+ * crowds keep their data out of the garbage collected heap. Slots are read and written through
+ * {@link OffHeapFlyweight} subclasses or swept linearly over {@link #segment()}.
+ * <p>
+ * The segment can be passed to native APIs without copying, e.g.
+ * {@code nglBufferData(GL_ARRAY_BUFFER, store.byteSize(), store.segment().address(), GL_STREAM_DRAW)}.
+ * <p>
+ * The memory is owned by a shared arena, so systems updated concurrently may access slots as long as no structural
+ * changes happen meanwhile. The segment is replaced when the store grows, so it should be fetched again after
+ * entities were added. The memory is freed when the store is removed from its registry or the registry is closed.
+ */
+public final class OffHeapStore implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final MemoryLayout layout;
+    private final long stride;
+    private Arena arena;
+    private MemorySegment data;
+    private int capacity;
+    /**
+     * Entity owning every slot
+     */
+    private int[] entities;
+    /**
+     * Slot of every entity by entity index, -1 for entities without a slot
+     */
+    private int[] slots = new int[0];
+    private int size;
+
+    OffHeapStore(MemoryLayout layout) {
+        this(layout, DEFAULT_CAPACITY);
+    }
+
+    OffHeapStore(MemoryLayout layout, int capacity) {
+        if (layout.byteSize() == 0) {
+            throw new IllegalArgumentException("Off-heap layout must not be empty");
+        }
+        this.layout = layout;
+        this.stride = (layout.byteSize() + layout.byteAlignment() - 1) / layout.byteAlignment()
+            * layout.byteAlignment();
+        this.capacity = Math.max(1, capacity);
+        this.arena = Arena.ofShared();
+        this.data = arena.allocate(stride * this.capacity, layout.byteAlignment());
+        this.entities = new int[this.capacity];
+    }
+
+    public MemoryLayout layout() {
+        return layout;
+    }
+
+    /**
+     * @return distance between two slots in bytes, the layout size rounded up to its alignment
+     */
+    public long stride() {
+        return stride;
+    }
+
+    /**
+     * @return number of slots in use
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of bytes in use at the start of the segment
+     */
+    public long byteSize() {
+        return size * stride;
+    }
+
+    /**
+     * Live storage of all slots. Only the first {@link #byteSize()} bytes are in use.
+     */
+    public MemorySegment segment() {
+        return data;
+    }
+
+    /**
+     * @return byte offset of the slot in the segment
+     */
+    public long offset(int slot) {
+        return slot * stride;
+    }
+
+    /**
+     * @return entity owning the slot
+     */
+    public int entity(int slot) {
+        return entities[slot];
+    }
+
+    /**
+     * @return slot of the entity or -1 if the entity has none
+     */
+    public int slot(int entityId) {
+        int index = EntityIdGenerator.index(entityId);
+        if (index >= slots.length) {
+            return -1;
+        }
+        int slot = slots[index];
+        return slot >= 0 && entities[slot] == entityId ? slot : -1;
+    }
+
+    /**
+     * Frees the memory, the store must not be used afterward
+     */
+    @Override
+    public void close() {
+        if (arena.scope().isAlive()) {
+            arena.close();
+        }
+    }
+
+    /**
+     * Adds a zeroed slot for the entity, unless it already has one
+     */
+    void add(int entityId) {
+        int index = EntityIdGenerator.index(entityId);
+        if (index >= slots.length) {
+            int oldLength = slots.length;
+            slots = Arrays.copyOf(slots, Math.max(index + 1, oldLength * 2));
+            Arrays.fill(slots, oldLength, slots.length, -1);
+        }
+        if (slots[index] >= 0) {
+            return;
+        }
+        if (size == capacity) {
+            grow(capacity * 2);
+        }
+        data.asSlice(offset(size), stride).fill((byte) 0);
+        entities[size] = entityId;
+        slots[index] = size;
+        size++;
+    }
+
+    /**
+     * Removes the slot of the entity by moving the last slot into its place
+     */
+    void remove(int entityId) {
+        int slot = slot(entityId);
+        if (slot < 0) {
+            return;
+        }
+        int last = --size;
+        if (slot != last) {
+            MemorySegment.copy(data, offset(last), data, offset(slot), stride);
+            entities[slot] = entities[last];
+            slots[EntityIdGenerator.index(entities[slot])] = slot;
+        }
+        slots[EntityIdGenerator.index(entityId)] = -1;
+    }
+
+    void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            slots[EntityIdGenerator.index(entities[slot])] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the data into a larger segment of a new arena and frees the previous one
+     */
+    private void grow(int newCapacity) {
+        Arena newArena = Arena.ofShared();
+        MemorySegment newData = newArena.allocate(stride * newCapacity, layout.byteAlignment());
+        MemorySegment.copy(data, 0, newData, 0, byteSize());
+        arena.close();
+        arena = newArena;
+        data = newData;
+        capacity = newCapacity;
+        entities = Arrays.copyOf(entities, newCapacity);
+    }
+}
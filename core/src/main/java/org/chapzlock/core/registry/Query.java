@@ -0,0 +1,561 @@
+package org.chapzlock.core.registry;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RecursiveAction;
+
+import org.chapzlock.core.application.ChangeTracked;
+import org.chapzlock.core.application.Component;
+import org.chapzlock.core.application.FrameArena;
+import org.chapzlock.core.entity.EntityView;
+
+/**
+ * Persistent query over all entities that have every one of the required component types
+ * and none of the excluded ones.
+ * <p>
+ * Queries are created once through {@link ComponentRegistry#query(Class[])} and kept up to date by the registry:
+ * whenever a new archetype appears it is matched against every query. Because entities live inside archetypes,
+ * adding or removing components is automatically reflected without rescanning anything.
+ * <p>
+ * Iteration does not allocate. The iterator and the {@link EntityView} it returns are reused per thread, so views must
+ * not be stored and the same query must not be iterated in a nested loop. Different threads may iterate the same query
+ * concurrently as long as no structural changes happen meanwhile. The typed {@code each} methods skip the views
+ * altogether and hand the components straight from the archetype columns to the callback.
+ * <p>
+ * Tags have no storage, for them the shared tag instance is handed out.
+ */
+public final class Query implements Iterable<EntityView> {
+    private static final int DEFAULT_MIN_CHUNK_SIZE = 256;
+
+    private final ComponentRegistry registry;
+    private final Class<? extends Component>[] types;
+    private final int[] typeIds;
+    private final BitSet required;
+    private final BitSet excluded;
+
+    private Archetype[] archetypes = new Archetype[4];
+    /**
+     * Column indices of the required types for every matched archetype
+     */
+    private int[][] columns = new int[4][];
+    private int archetypeCount;
+    private volatile int minChunkSize = DEFAULT_MIN_CHUNK_SIZE;
+
+    private final ThreadLocal<QueryIterator> iterators = ThreadLocal.withInitial(QueryIterator::new);
+    private final ThreadLocal<QueryView> firstViews;
+
+    Query(ComponentRegistry registry, Class<? extends Component>[] types, int[] typeIds, BitSet required,
+          BitSet excluded) {
+        this.registry = registry;
+        this.types = types;
+        this.typeIds = typeIds;
+        this.required = required;
+        this.excluded = excluded;
+        this.firstViews = ThreadLocal.withInitial(() -> new QueryView(registry, types, typeIds));
+    }
+
+    /**
+     * Registers the archetype with this query if it contains all required and none of the excluded component types.
+     * Tag types of the query get their column filled with the shared tag instance up front, so iterating threads
+     * only ever read it.
+     */
+    void match(Archetype archetype) {
+        if (!archetype.containsAll(required) || archetype.containsAny(excluded)) {
+            return;
+        }
+        if (archetypeCount == archetypes.length) {
+            archetypes = Arrays.copyOf(archetypes, archetypeCount * 2);
+            columns = Arrays.copyOf(columns, archetypeCount * 2);
+        }
+        int[] archetypeColumns = new int[typeIds.length];
+        for (int i = 0; i < typeIds.length; i++) {
+            archetypeColumns[i] = archetype.columnOf(typeIds[i]);
+            if (archetypeColumns[i] < 0 && archetype.tagColumn(typeIds[i]) == null) {
+                archetype.fillTagColumn(typeIds[i], registry.tagInstance(typeIds[i]));
+            }
+        }
+        archetypes[archetypeCount] = archetype;
+        columns[archetypeCount] = archetypeColumns;
+        archetypeCount++;
+    }
+
+    Class<? extends Component>[] types() {
+        return types;
+    }
+
+    int[] typeIds() {
+        return typeIds;
+    }
+
+    BitSet required() {
+        return required;
+    }
+
+    BitSet excluded() {
+        return excluded;
+    }
+
+    int archetypeCount() {
+        return archetypeCount;
+    }
+
+    Archetype archetype(int index) {
+        return archetypes[index];
+    }
+
+    int[] columns(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Narrows the query down to entities that also have the given types, without iterating them.
+     * Typically used with tags.
+     *
+     * @return the persistent filtered query
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public final Query with(Class<? extends Component>... types) {
+        return registry.filteredQuery(this, types, new Class[0]);
+    }
+
+    /**
+     * Narrows the query down to entities that have none of the given types.
+     *
+     * @return the persistent filtered query
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public final Query without(Class<? extends Component>... types) {
+        return registry.filteredQuery(this, new Class[0], types);
+    }
+
+    /**
+     * @return number of entities currently matching the query
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < archetypeCount; i++) {
+            size += archetypes[i].size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        for (int i = 0; i < archetypeCount; i++) {
+            if (archetypes[i].size() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the first matching entity. Handy for components that only exist once in the world.
+     * The returned view is reused by subsequent calls on the same thread.
+     *
+     * @return view of the first matching entity or null if nothing matches
+     */
+    public EntityView first() {
+        for (int i = 0; i < archetypeCount; i++) {
+            if (archetypes[i].size() > 0) {
+                QueryView firstView = firstViews.get();
+                firstView.moveTo(archetypes[i], columns[i], 0);
+                return firstView;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Calls the consumer for every matching entity with the requested component passed in directly.
+     * Components may be modified, but entities must not gain or lose components during the pass.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Component> void each(Class<A> typeA, EntityConsumer1<? super A> consumer) {
+        int a = indexOf(typeA);
+        for (int i = 0; i < archetypeCount; i++) {
+            Archetype archetype = archetypes[i];
+            int size = archetype.size();
+            int[] entities = archetype.entities();
+            Component[] columnA = column(archetype, columns[i][a], a);
+            for (int row = 0; row < size; row++) {
+                consumer.accept(entities[row], (A) columnA[row]);
+            }
+        }
+    }
+
+    /**
+     * Calls the consumer for every matching entity with the requested components passed in directly.
+     * Components may be modified, but entities must not gain or lose components during the pass.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Component, B extends Component> void each(
+        Class<A> typeA, Class<B> typeB, EntityConsumer2<? super A, ? super B> consumer) {
+        int a = indexOf(typeA);
+        int b = indexOf(typeB);
+        for (int i = 0; i < archetypeCount; i++) {
+            Archetype archetype = archetypes[i];
+            int size = archetype.size();
+            int[] entities = archetype.entities();
+            Component[] columnA = column(archetype, columns[i][a], a);
+            Component[] columnB = column(archetype, columns[i][b], b);
+            for (int row = 0; row < size; row++) {
+                consumer.accept(entities[row], (A) columnA[row], (B) columnB[row]);
+            }
+        }
+    }
+
+    /**
+     * Calls the consumer for every matching entity with the requested components passed in directly.
+     * Components may be modified, but entities must not gain or lose components during the pass.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Component, B extends Component, C extends Component> void each(
+        Class<A> typeA, Class<B> typeB, Class<C> typeC, EntityConsumer3<? super A, ? super B, ? super C> consumer) {
+        int a = indexOf(typeA);
+        int b = indexOf(typeB);
+        int c = indexOf(typeC);
+        for (int i = 0; i < archetypeCount; i++) {
+            Archetype archetype = archetypes[i];
+            int size = archetype.size();
+            int[] entities = archetype.entities();
+            Component[] columnA = column(archetype, columns[i][a], a);
+            Component[] columnB = column(archetype, columns[i][b], b);
+            Component[] columnC = column(archetype, columns[i][c], c);
+            for (int row = 0; row < size; row++) {
+                consumer.accept(entities[row], (A) columnA[row], (B) columnB[row], (C) columnC[row]);
+            }
+        }
+    }
+
+    /**
+     * Calls the consumer for every matching entity with the requested components passed in directly.
+     * Components may be modified, but entities must not gain or lose components during the pass.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Component, B extends Component, C extends Component, D extends Component> void each(
+        Class<A> typeA, Class<B> typeB, Class<C> typeC, Class<D> typeD,
+        EntityConsumer4<? super A, ? super B, ? super C, ? super D> consumer) {
+        int a = indexOf(typeA);
+        int b = indexOf(typeB);
+        int c = indexOf(typeC);
+        int d = indexOf(typeD);
+        for (int i = 0; i < archetypeCount; i++) {
+            Archetype archetype = archetypes[i];
+            int size = archetype.size();
+            int[] entities = archetype.entities();
+            Component[] columnA = column(archetype, columns[i][a], a);
+            Component[] columnB = column(archetype, columns[i][b], b);
+            Component[] columnC = column(archetype, columns[i][c], c);
+            Component[] columnD = column(archetype, columns[i][d], d);
+            for (int row = 0; row < size; row++) {
+                consumer.accept(entities[row], (A) columnA[row], (B) columnB[row], (C) columnC[row], (D) columnD[row]);
+            }
+        }
+    }
+
+    /**
+     * Calls the consumer for every matching entity whose filtered component changed since the filter was last used.
+     * Changes made while the pass runs, including the ones made by the consumer, are reported on the next pass.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Component> void each(Changed<A> changed, EntityConsumer1<? super A> consumer) {
+        int a = indexOfTracked(changed.type());
+        int since = changed.lastRunTick();
+        changed.setLastRunTick(registry.advanceChangeTick());
+        for (int i = 0; i < archetypeCount; i++) {
+            Archetype archetype = archetypes[i];
+            int size = archetype.size();
+            int[] entities = archetype.entities();
+            Component[] columnA = column(archetype, columns[i][a], a);
+            int[] ticksA = archetype.changeTicks(columns[i][a]);
+            for (int row = 0; row < size; row++) {
+                if (isChanged(columnA[row], ticksA[row], since)) {
+                    consumer.accept(entities[row], (A) columnA[row]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calls the consumer for every matching entity whose filtered component changed since the filter was last used,
+     * passing in a second component as well. See {@link #each(Changed, EntityConsumer1)}.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Component, B extends Component> void each(
+        Changed<A> changed, Class<B> typeB, EntityConsumer2<? super A, ? super B> consumer) {
+        int a = indexOfTracked(changed.type());
+        int b = indexOf(typeB);
+        int since = changed.lastRunTick();
+        changed.setLastRunTick(registry.advanceChangeTick());
+        for (int i = 0; i < archetypeCount; i++) {
+            Archetype archetype = archetypes[i];
+            int size = archetype.size();
+            int[] entities = archetype.entities();
+            Component[] columnA = column(archetype, columns[i][a], a);
+            Component[] columnB = column(archetype, columns[i][b], b);
+            int[] ticksA = archetype.changeTicks(columns[i][a]);
+            for (int row = 0; row < size; row++) {
+                if (isChanged(columnA[row], ticksA[row], since)) {
+                    consumer.accept(entities[row], (A) columnA[row], (B) columnB[row]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calls the consumer for every matching entity like {@link #each(Class, EntityConsumer1)}, but splits the
+     * entities into chunks of at least {@link #getMinChunkSize()} that are processed in parallel with fork-join
+     * work stealing. The consumer must be thread safe. Structural changes are rejected until the pass is over,
+     * record them into the command buffer instead.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Component> void parallelEach(Class<A> typeA, EntityConsumer1<? super A> consumer) {
+        int a = indexOf(typeA);
+        parallelForEachRange((archetype, archetypeColumns, from, to) -> {
+            int[] entities = archetype.entities();
+            Component[] columnA = column(archetype, archetypeColumns[a], a);
+            for (int row = from; row < to; row++) {
+                consumer.accept(entities[row], (A) columnA[row]);
+            }
+        });
+    }
+
+    /**
+     * Parallel version of {@link #each(Class, Class, EntityConsumer2)}, see {@link #parallelEach(Class, EntityConsumer1)}.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Component, B extends Component> void parallelEach(
+        Class<A> typeA, Class<B> typeB, EntityConsumer2<? super A, ? super B> consumer) {
+        int a = indexOf(typeA);
+        int b = indexOf(typeB);
+        parallelForEachRange((archetype, archetypeColumns, from, to) -> {
+            int[] entities = archetype.entities();
+            Component[] columnA = column(archetype, archetypeColumns[a], a);
+            Component[] columnB = column(archetype, archetypeColumns[b], b);
+            for (int row = from; row < to; row++) {
+                consumer.accept(entities[row], (A) columnA[row], (B) columnB[row]);
+            }
+        });
+    }
+
+    /**
+     * Parallel version of {@link #each(Class, Class, Class, EntityConsumer3)},
+     * see {@link #parallelEach(Class, EntityConsumer1)}.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Component, B extends Component, C extends Component> void parallelEach(
+        Class<A> typeA, Class<B> typeB, Class<C> typeC, EntityConsumer3<? super A, ? super B, ? super C> consumer) {
+        int a = indexOf(typeA);
+        int b = indexOf(typeB);
+        int c = indexOf(typeC);
+        parallelForEachRange((archetype, archetypeColumns, from, to) -> {
+            int[] entities = archetype.entities();
+            Component[] columnA = column(archetype, archetypeColumns[a], a);
+            Component[] columnB = column(archetype, archetypeColumns[b], b);
+            Component[] columnC = column(archetype, archetypeColumns[c], c);
+            for (int row = from; row < to; row++) {
+                consumer.accept(entities[row], (A) columnA[row], (B) columnB[row], (C) columnC[row]);
+            }
+        });
+    }
+
+    /**
+     * Parallel version of {@link #each(Class, Class, Class, Class, EntityConsumer4)},
+     * see {@link #parallelEach(Class, EntityConsumer1)}.
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Component, B extends Component, C extends Component, D extends Component> void parallelEach(
+        Class<A> typeA, Class<B> typeB, Class<C> typeC, Class<D> typeD,
+        EntityConsumer4<? super A, ? super B, ? super C, ? super D> consumer) {
+        int a = indexOf(typeA);
+        int b = indexOf(typeB);
+        int c = indexOf(typeC);
+        int d = indexOf(typeD);
+        parallelForEachRange((archetype, archetypeColumns, from, to) -> {
+            int[] entities = archetype.entities();
+            Component[] columnA = column(archetype, archetypeColumns[a], a);
+            Component[] columnB = column(archetype, archetypeColumns[b], b);
+            Component[] columnC = column(archetype, archetypeColumns[c], c);
+            Component[] columnD = column(archetype, archetypeColumns[d], d);
+            for (int row = from; row < to; row++) {
+                consumer.accept(entities[row], (A) columnA[row], (B) columnB[row], (C) columnC[row], (D) columnD[row]);
+            }
+        });
+    }
+
+    /**
+     * Minimum number of entities a parallel pass hands to a single task
+     */
+    public int getMinChunkSize() {
+        return minChunkSize;
+    }
+
+    /**
+     * Sets the minimum number of entities a parallel pass hands to a single task. Small chunks balance uneven work
+     * better, large chunks have less scheduling overhead.
+     */
+    public void setMinChunkSize(int minChunkSize) {
+        if (minChunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive, got " + minChunkSize);
+        }
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Returns the reusable iterator of this query for the current thread, reset to the first entity.
+     */
+    @Override
+    public Iterator<EntityView> iterator() {
+        QueryIterator iterator = iterators.get();
+        iterator.reset();
+        return iterator;
+    }
+
+    /**
+     * A component changed after the tick if it was added or marked later, or if it tracks a later modification itself
+     */
+    private static boolean isChanged(Component component, int tick, int since) {
+        return tick > since || component instanceof ChangeTracked tracked && tracked.getChangeTick() > since;
+    }
+
+    /**
+     * Column of a query type in the archetype, for tags the column filled with the shared tag instance
+     */
+    private Component[] column(Archetype archetype, int column, int typeIndex) {
+        return column >= 0 ? archetype.column(column) : archetype.tagColumn(typeIds[typeIndex]);
+    }
+
+    /**
+     * Like {@link #indexOf(Class)}, but rejects tags as they carry no change ticks
+     */
+    private int indexOfTracked(Class<? extends Component> type) {
+        int index = indexOf(type);
+        if (registry.isTag(typeIds[index])) {
+            throw new IllegalArgumentException(type.getSimpleName() + " is a tag and does not track changes");
+        }
+        return index;
+    }
+
+    /**
+     * Finds the position of a component type among the query types
+     */
+    private int indexOf(Class<? extends Component> type) {
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == type) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(type.getSimpleName() + " is not part of this query");
+    }
+
+    /**
+     * Runs the action over all matching rows in parallel. Rows are numbered across archetypes,
+     * so a chunk may span several archetypes and small archetypes do not each pay for a task.
+     */
+    private void parallelForEachRange(RowRangeAction action) {
+        int[] offsets = new int[archetypeCount + 1];
+        for (int i = 0; i < archetypeCount; i++) {
+            offsets[i + 1] = offsets[i] + archetypes[i].size();
+        }
+        int total = offsets[archetypeCount];
+        if (total == 0) {
+            return;
+        }
+        registry.beginParallelPass();
+        try {
+            new RangeTask(action, offsets, 0, total, minChunkSize).invoke();
+        } finally {
+            registry.endParallelPass();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowRangeAction {
+        void run(Archetype archetype, int[] archetypeColumns, int fromRow, int toRow);
+    }
+
+    /**
+     * Splits a range of rows in half until it is small enough, then runs the action archetype by archetype
+     */
+    private final class RangeTask extends RecursiveAction {
+        private final RowRangeAction action;
+        private final int[] offsets;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        RangeTask(RowRangeAction action, int[] offsets, int from, int to, int chunkSize) {
+            this.action = action;
+            this.offsets = offsets;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > chunkSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(action, offsets, from, middle, chunkSize),
+                    new RangeTask(action, offsets, middle, to, chunkSize));
+                return;
+            }
+            int archetypeIndex = Arrays.binarySearch(offsets, from);
+            archetypeIndex = archetypeIndex >= 0 ? archetypeIndex : -archetypeIndex - 2;
+            int position = from;
+            // pool threads have no frame of their own, scratch objects of the chunk are given back afterward
+            FrameArena arena = FrameArena.current();
+            long mark = arena.mark();
+            try {
+                while (position < to) {
+                    // skip empty archetypes that share the same offset
+                    while (offsets[archetypeIndex + 1] <= position) {
+                        archetypeIndex++;
+                    }
+                    int end = Math.min(to, offsets[archetypeIndex + 1]);
+                    int base = offsets[archetypeIndex];
+                    action.run(archetypes[archetypeIndex], columns[archetypeIndex], position - base, end - base);
+                    position = end;
+                }
+            } finally {
+                arena.reset(mark);
+            }
+        }
+    }
+
+    private final class QueryIterator implements Iterator<EntityView> {
+        private final QueryView view = new QueryView(registry, types, typeIds);
+        private int archetypeIndex;
+        private int row;
+
+        void reset() {
+            archetypeIndex = 0;
+            row = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (archetypeIndex < archetypeCount) {
+                if (row < archetypes[archetypeIndex].size()) {
+                    return true;
+                }
+                archetypeIndex++;
+                row = 0;
+            }
+            return false;
+        }
+
+        @Override
+        public EntityView next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            view.moveTo(archetypes[archetypeIndex], columns[archetypeIndex], row++);
+            return view;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.chapzlock.core.registry;
+
+import org.chapzlock.core.application.Component;
+import org.chapzlock.core.entity.EntityView;
+
+/**
+ * Reusable entity view handed out while iterating a {@link Query}.
+ * It is repositioned on every step, so it must not be stored.
+ */
+final class QueryView extends EntityView {
+    private final ComponentRegistry registry;
+    private final int[] typeIds;
+    private final Component[] slots;
+
+    QueryView(ComponentRegistry registry, Class<? extends Component>[] types, int[] typeIds) {
+        this(registry, types, typeIds, new Component[types.length]);
+    }
+
+    private QueryView(ComponentRegistry registry, Class<? extends Component>[] types, int[] typeIds,
+                      Component[] slots) {
+        super(0, types, slots);
+        this.registry = registry;
+        this.typeIds = typeIds;
+        this.slots = slots;
+    }
+
+    void moveTo(Archetype archetype, int[] columns, int row) {
+        setId(archetype.entities()[row]);
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = columns[i] >= 0 ? archetype.get(row, columns[i]) : registry.tagInstance(typeIds[i]);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.chapzlock.core.registry;
+
+/**
+ * Fills in the components of one entity created by {@link ComponentRegistry#spawn(int, EntityArchetype, SpawnInitializer)}.
+ */
+@FunctionalInterface
+public interface SpawnInitializer {
+    /**
+     * @param index position of the entity within the spawned batch
+     * @param entity reusable handle of the new entity, must not be stored
+     */
+    void initialize(int index, SpawnedEntity entity);
+}
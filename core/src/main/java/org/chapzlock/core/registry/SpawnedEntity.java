@@ -0,0 +1,52 @@
+package org.chapzlock.core.registry;
+
+import org.chapzlock.core.application.Component;
+
+/**
+ * Reusable handle to the row of an entity that is being bulk spawned.
+ * Components are written straight into the archetype columns.
+ */
+public final class SpawnedEntity {
+    private final EntityArchetype archetype;
+    private int id;
+    private int row;
+
+    SpawnedEntity(EntityArchetype archetype) {
+        this.archetype = archetype;
+    }
+
+    void moveTo(int id, int row) {
+        this.id = id;
+        this.row = row;
+    }
+
+    int row() {
+        return row;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the component of the entity. Its type must be one of the archetype types.
+     * Tags may be left out once an instance of them has been added to the registry.
+     *
+     * @return this handle for chaining
+     */
+    public SpawnedEntity set(Component component) {
+        Class<? extends Component>[] types = archetype.types();
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == component.getClass()) {
+                int column = archetype.archetype().columnOf(archetype.typeIds()[i]);
+                if (column >= 0) {
+                    archetype.archetype().set(row, column, component);
+                } else {
+                    archetype.registry().registerTagInstance(archetype.typeIds()[i], component);
+                }
+                return this;
+            }
+        }
+        throw new IllegalArgumentException(component.getClass().getSimpleName() + " is not part of the archetype");
+    }
+}
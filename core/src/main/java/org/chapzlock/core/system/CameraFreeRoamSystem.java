@@ -5,7 +5,9 @@ import static org.joml.Math.clamp;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.chapzlock.core.application.FrameArena;
 import org.chapzlock.core.application.System;
+import org.chapzlock.core.application.SystemAccess;
 import org.chapzlock.core.component.Camera;
 import org.chapzlock.core.event.EventBus;
 import org.chapzlock.core.event.Subscription;
@@ -22,7 +24,7 @@ import org.lwjgl.glfw.GLFW;
  */
 public class CameraFreeRoamSystem implements System {
 
-    private final ComponentRegistry registry = ComponentRegistry.instance();
+    private final ComponentRegistry registry;
     private final EventBus eventBus = EventBus.instance();
     private final List<Subscription> subscriptions = new ArrayList<>();
 
@@ -42,40 +44,49 @@ public class CameraFreeRoamSystem implements System {
     private double lastMouseY;
     private boolean firstMouse = true;
 
+    public CameraFreeRoamSystem() {
+        this(ComponentRegistry.instance());
+    }
+
+    public CameraFreeRoamSystem(ComponentRegistry registry) {
+        this.registry = registry;
+    }
+
     @Override
     public void onUpdate(float deltaTime) {
-        var view = registry.view(Camera.class);
-        if (view.isEmpty()) {
+        Camera camera = registry.resource(Camera.class);
+        if (camera == null) {
             return;
         }
-        Camera camera = view.getFirst().get(Camera.class);
         float velocity = CAMERA_MOVEMENT_SPEED * deltaTime;
+        Vector3f direction = FrameArena.current().vector3f();
         if (movingForward) {
-            Vector3f forward = camera.getCameraFront().mul(velocity);
-            camera.getPosition().add(forward);
+            camera.getPosition().fma(velocity, camera.getCameraFront(direction));
         }
         if (movingBackwards) {
-            Vector3f backward = camera.getCameraFront().mul(velocity);
-            camera.getPosition().sub(backward);
+            camera.getPosition().fma(-velocity, camera.getCameraFront(direction));
         }
         if (movingLeft) {
-            Vector3f right = camera.getCameraRight().mul(velocity);
-            camera.getPosition().sub(right);
+            camera.getPosition().fma(-velocity, camera.getCameraRight(direction));
         }
         if (movingRight) {
-            Vector3f right = camera.getCameraRight().mul(velocity);
-            camera.getPosition().add(right);
+            camera.getPosition().fma(velocity, camera.getCameraRight(direction));
         }
         if (movingUp) {
-            Vector3f up = camera.getCameraUp().mul(velocity);
-            camera.getPosition().add(up);
+            camera.getPosition().fma(velocity, camera.getCameraUp(direction));
         }
         if (movingDown) {
-            Vector3f up = camera.getCameraUp().mul(velocity);
-            camera.getPosition().sub(up);
+            camera.getPosition().fma(-velocity, camera.getCameraUp(direction));
         }
     }
 
+    @Override
+    public SystemAccess access() {
+        return SystemAccess.builder()
+            .write(Camera.class)
+            .build();
+    }
+
     @Override
     public void onInit() {
         // disable cursor for free-roam
@@ -135,11 +146,10 @@ public class CameraFreeRoamSystem implements System {
         lastMouseX = mouseX;
         lastMouseY = mouseY;
 
-        var view = registry.view(Camera.class);
-        if (view.isEmpty()) {
+        Camera camera = registry.resource(Camera.class);
+        if (camera == null) {
             return false;
         }
-        Camera camera = view.getFirst().get(Camera.class);
 
         float yaw = camera.getYaw() + (float) (xOffset * CAMERA_MOUSE_SENSITIVITY);
         float pitch = camera.getPitch() + (float) (yOffset * CAMERA_MOUSE_SENSITIVITY);
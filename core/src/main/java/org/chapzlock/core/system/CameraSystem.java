@@ -1,10 +1,10 @@
 package org.chapzlock.core.system;
 
 import org.chapzlock.core.application.Application;
+import org.chapzlock.core.application.FrameArena;
 import org.chapzlock.core.component.Camera;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
-import org.joml.Vector3fc;
 
 public class CameraSystem {
 
@@ -23,21 +23,29 @@ public class CameraSystem {
      * @return perspective projection matrix
      */
     public Matrix4f calculateProjectionMatrix(Camera camera) {
-        if (isCameraSettingsSame(camera)) {
-            return new Matrix4f(projectionMatrix);
+        return new Matrix4f(calculateProjectionMatrix(camera, this.projectionMatrix));
+    }
+
+    /**
+     * Writes the perspective projection matrix into dest, without allocating
+     *
+     * @return dest
+     */
+    public Matrix4f calculateProjectionMatrix(Camera camera, Matrix4f dest) {
+        if (!isCameraSettingsSame(camera)) {
+            this.cachedFieldOfView = camera.getFieldOfView();
+            this.cachedNearPlane = camera.getNearPlane();
+            this.cachedFarPlane = camera.getFarPlane();
+            this.cachedAspectRatio = Application.instance().getAppSpec().getWindowSpec().getAspectRatio();
+            this.projectionMatrix.identity();
+            this.projectionMatrix.perspective(
+                camera.getFieldOfView(),
+                cachedAspectRatio,
+                camera.getNearPlane(),
+                camera.getFarPlane()
+            );
         }
-        this.cachedFieldOfView = camera.getFieldOfView();
-        this.cachedNearPlane = camera.getNearPlane();
-        this.cachedFarPlane = camera.getFarPlane();
-        this.cachedAspectRatio = Application.instance().getAppSpec().getWindowSpec().getAspectRatio();
-        this.projectionMatrix.identity();
-        this.projectionMatrix.perspective(
-            camera.getFieldOfView(),
-            cachedAspectRatio,
-            camera.getNearPlane(),
-            camera.getFarPlane()
-        );
-        return new Matrix4f(this.projectionMatrix);
+        return dest.set(this.projectionMatrix);
     }
 
     private boolean isCameraSettingsSame(Camera camera) {
@@ -48,16 +56,24 @@ public class CameraSystem {
     }
 
     public Matrix4f calculateViewMatrix(Camera camera) {
-        this.cameraViewMatrix.identity();
-        this.cameraViewMatrix.lookAt(
+        return new Matrix4f(calculateViewMatrix(camera, this.cameraViewMatrix));
+    }
+
+    /**
+     * Writes the view matrix of the camera into dest, without allocating
+     *
+     * @return dest
+     */
+    public Matrix4f calculateViewMatrix(Camera camera, Matrix4f dest) {
+        FrameArena arena = FrameArena.current();
+        return dest.setLookAt(
             camera.getPosition(),
-            calculateCameraCenter(camera),
-            camera.getCameraUp()
+            calculateCameraCenter(camera, arena.vector3f()),
+            camera.getCameraUp(arena.vector3f())
         );
-        return new Matrix4f(this.cameraViewMatrix);
     }
 
-    private Vector3fc calculateCameraCenter(Camera camera) {
-        return camera.getPosition().add(camera.getCameraFront(), new Vector3f());
+    private Vector3f calculateCameraCenter(Camera camera, Vector3f dest) {
+        return camera.getCameraFront(dest).add(camera.getPosition());
     }
 }
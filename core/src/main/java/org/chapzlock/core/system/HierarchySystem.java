@@ -0,0 +1,139 @@
+package org.chapzlock.core.system;
+
+import org.chapzlock.core.application.System;
+import org.chapzlock.core.application.SystemAccess;
+import org.chapzlock.core.component.Children;
+import org.chapzlock.core.component.Parent;
+import org.chapzlock.core.component.Transform;
+import org.chapzlock.core.registry.ComponentRegistry;
+import org.chapzlock.core.registry.Query;
+
+/**
+ * Keeps the world matrices of attached entities up to date.
+ * <p>
+ * Entities are attached with {@link #setParent(int, int)}, which makes their {@link Transform} relative to the
+ * transform of the parent. Each update walks the hierarchies top-down from their roots and only recalculates the
+ * world matrices of transforms that changed, together with everything below them.
+ * Children of destroyed parents are detached and become roots again. Links between transforms are resolved from
+ * the {@link Parent} entities on every update, so replacing the transform of a parent or a child keeps the hierarchy.
+ */
+public class HierarchySystem implements System {
+    private final ComponentRegistry registry;
+    private final Query roots;
+    private final Query attached;
+
+    public HierarchySystem() {
+        this(ComponentRegistry.instance());
+    }
+
+    public HierarchySystem(ComponentRegistry registry) {
+        this.registry = registry;
+        this.roots = registry.query(Transform.class, Children.class).without(Parent.class);
+        this.attached = registry.query(Transform.class, Parent.class);
+    }
+
+    /**
+     * Attaches the child to the parent, detaching it from its previous parent first.
+     *
+     * @throws IllegalArgumentException if an entity is not alive or has no transform,
+     *                                  or if the parent is the child itself or one of its descendants
+     */
+    public void setParent(int child, int parent) {
+        Transform childTransform = getTransform(child);
+        Transform parentTransform = getTransform(parent);
+        for (int ancestor = parent; ancestor != -1; ancestor = parentOf(ancestor)) {
+            if (ancestor == child) {
+                throw new IllegalArgumentException(
+                    "Entity " + parent + " can not be the parent of its ancestor " + child);
+            }
+        }
+        removeParent(child);
+
+        Children children = registry.getComponent(parent, Children.class);
+        if (children == null) {
+            children = new Children();
+            registry.addComponent(parent, children);
+        }
+        children.add(child);
+        registry.addComponent(child, new Parent(parent));
+        childTransform.setParent(parentTransform);
+    }
+
+    /**
+     * Detaches the entity from its parent, its transform becomes relative to the world again
+     */
+    public void removeParent(int child) {
+        int parent = parentOf(child);
+        if (parent == -1) {
+            return;
+        }
+        Children children = registry.getComponent(parent, Children.class);
+        if (children != null) {
+            children.remove(child);
+        }
+        registry.removeComponent(child, Parent.class);
+        Transform transform = registry.getComponent(child, Transform.class);
+        if (transform != null) {
+            transform.setParent(null);
+        }
+    }
+
+    @Override
+    public void onUpdate(float deltaTime) {
+        attached.each(Transform.class, Parent.class, (entityId, transform, parent) -> {
+            if (!registry.isAlive(parent.getEntity())) {
+                transform.setParent(null);
+                registry.commands().removeComponent(entityId, Parent.class);
+                return;
+            }
+            Transform parentTransform = registry.getComponent(parent.getEntity(), Transform.class);
+            if (transform.getParent() != parentTransform) {
+                // either transform was replaced since it was attached
+                transform.setParent(parentTransform);
+            }
+        });
+        roots.each(Transform.class, Children.class, (entityId, transform, children) ->
+            updateChildren(children, transform.updateWorldMatrix(false)));
+    }
+
+    @Override
+    public SystemAccess access() {
+        return SystemAccess.builder()
+            .read(Parent.class)
+            .write(Children.class)
+            .write(Transform.class)
+            .build();
+    }
+
+    /**
+     * Updates the world matrices below an entity whose own world matrix is already up to date
+     */
+    private void updateChildren(Children children, boolean parentChanged) {
+        for (int i = children.size() - 1; i >= 0; i--) {
+            int child = children.get(i);
+            Transform transform = registry.getComponent(child, Transform.class);
+            if (transform == null) {
+                children.remove(child);
+                continue;
+            }
+            boolean changed = transform.updateWorldMatrix(parentChanged);
+            Children grandChildren = registry.getComponent(child, Children.class);
+            if (grandChildren != null) {
+                updateChildren(grandChildren, changed);
+            }
+        }
+    }
+
+    private Transform getTransform(int entityId) {
+        Transform transform = registry.getComponent(entityId, Transform.class);
+        if (transform == null) {
+            throw new IllegalArgumentException("Entity " + entityId + " is not alive or has no transform");
+        }
+        return transform;
+    }
+
+    private int parentOf(int entityId) {
+        Parent parent = registry.getComponent(entityId, Parent.class);
+        return parent == null ? -1 : parent.getEntity();
+    }
+}
@@ -1,18 +1,27 @@
 package org.chapzlock.core.system;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
 import javax.vecmath.Vector3f;
 
+import org.chapzlock.core.application.FrameArena;
 import org.chapzlock.core.application.System;
+import org.chapzlock.core.application.SystemAccess;
 import org.chapzlock.core.component.Camera;
 import org.chapzlock.core.component.PhysicsBody;
 import org.chapzlock.core.component.Transform;
-import org.chapzlock.core.entity.EntityView;
 import org.chapzlock.core.physics.EntityMotionState;
-import org.chapzlock.core.physics.PhysicsCollisionUtil;
+import org.chapzlock.core.physics.ContactCache;
 import org.chapzlock.core.physics.PhysicsDebugRenderer;
 import org.chapzlock.core.physics.PhysicsDebugger;
 import org.chapzlock.core.physics.PhysicsSystemSpecs;
+import org.chapzlock.core.registry.ComponentObserver;
 import org.chapzlock.core.registry.ComponentRegistry;
+import org.chapzlock.core.registry.Query;
 
 import com.bulletphysics.collision.broadphase.AxisSweep3;
 import com.bulletphysics.collision.broadphase.BroadphaseInterface;
@@ -20,10 +29,14 @@ import com.bulletphysics.collision.dispatch.CollisionConfiguration;
 import com.bulletphysics.collision.dispatch.CollisionDispatcher;
 import com.bulletphysics.collision.dispatch.DefaultCollisionConfiguration;
 import com.bulletphysics.dynamics.DiscreteDynamicsWorld;
+import com.bulletphysics.dynamics.RigidBody;
 import com.bulletphysics.dynamics.constraintsolver.SequentialImpulseConstraintSolver;
 
 /**
  * Handles the physics simulation lifecycle — initialization, updates, and optional debug rendering.
+ * <p>
+ * Entities with a {@link PhysicsBody} and a {@link Transform} are simulated. Bodies added or removed after
+ * initialization are picked up at the next sync point of the registry.
  */
 public class PhysicsSystem implements System {
 
@@ -33,13 +46,20 @@ public class PhysicsSystem implements System {
     private static final float FIXED_TIME_STEP = 1f / 60f;
     private static final int MAX_SUB_STEPS = 10;
 
-    private final ComponentRegistry registry = ComponentRegistry.instance();
+    private final ComponentRegistry registry;
+    private final Query physicsBodies;
 
     private final CollisionConfiguration collisionConfig;
     private final CollisionDispatcher dispatcher;
     private final BroadphaseInterface broadPhase;
     private final SequentialImpulseConstraintSolver solver;
     private final DiscreteDynamicsWorld dynamicsWorld;
+    private final ContactCache contacts = new ContactCache();
+    /**
+     * Bodies that have been added to the dynamics world
+     */
+    private final Set<RigidBody> simulatedBodies = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<ComponentObserver> observers = new ArrayList<>();
 
     private final PhysicsDebugger debugger;
     private final CameraSystem cameraSystem;
@@ -55,10 +75,27 @@ public class PhysicsSystem implements System {
             .build());
     }
 
+    /**
+     * Creates a physics system with default settings for the entities of the registry.
+     */
+    public PhysicsSystem(ComponentRegistry registry) {
+        this(registry, PhysicsSystemSpecs.builder()
+            .build());
+    }
+
     /**
      * Creates a physics system based on custom specifications.
      */
     public PhysicsSystem(PhysicsSystemSpecs specs) {
+        this(ComponentRegistry.instance(), specs);
+    }
+
+    /**
+     * Creates a physics system simulating the entities of the registry, with its own dynamics world.
+     */
+    public PhysicsSystem(ComponentRegistry registry, PhysicsSystemSpecs specs) {
+        this.registry = registry;
+        this.physicsBodies = registry.query(PhysicsBody.class, Transform.class);
         this.collisionConfig = new DefaultCollisionConfiguration();
         this.dispatcher = new CollisionDispatcher(collisionConfig);
         this.broadPhase = new AxisSweep3(WORLD_AABB_MIN, WORLD_AABB_MAX);
@@ -73,7 +110,23 @@ public class PhysicsSystem implements System {
     @Override
     public void onUpdate(float deltaTime) {
         stepSimulation(deltaTime);
-        PhysicsCollisionUtil.rebuildContactCache(dynamicsWorld);
+        contacts.rebuild(dynamicsWorld);
+    }
+
+    /**
+     * Contacts of the last simulation step
+     */
+    public ContactCache getContacts() {
+        return contacts;
+    }
+
+    @Override
+    public SystemAccess access() {
+        // the motion states write the simulated transforms back to the entities
+        return SystemAccess.builder()
+            .write(PhysicsBody.class)
+            .write(Transform.class)
+            .build();
     }
 
     @Override
@@ -87,11 +140,25 @@ public class PhysicsSystem implements System {
     public void onInit() {
         setupPhysicsWorld();
         registerEntities();
+        observers.add(registry.onAdd(PhysicsBody.class, (entityId, body) -> registerEntity(entityId)));
+        observers.add(registry.onAdd(Transform.class, (entityId, transform) -> registerEntity(entityId)));
+        observers.add(registry.onRemove(PhysicsBody.class, (entityId, body) -> removeBodyFromWorld(body)));
+        observers.add(registry.onRemove(Transform.class, (entityId, transform) -> {
+            PhysicsBody body = registry.getComponent(entityId, PhysicsBody.class);
+            if (body != null) {
+                removeBodyFromWorld(body);
+            }
+        }));
     }
 
     @Override
     public void onDestroy() {
-        //TODO: Implement me!
+        observers.forEach(ComponentObserver::unsubscribe);
+        observers.clear();
+        for (RigidBody body : simulatedBodies) {
+            dynamicsWorld.removeRigidBody(body);
+        }
+        simulatedBodies.clear();
     }
 
     private void setupPhysicsWorld() {
@@ -100,27 +167,47 @@ public class PhysicsSystem implements System {
     }
 
     private void registerEntities() {
-        registry.view(PhysicsBody.class, Transform.class)
-            .forEach(entity -> {
-                PhysicsBody body = entity.get(PhysicsBody.class);
-                synchronizeEntityTransform(entity, body);
-                addBodyToWorld(body);
-            });
+        physicsBodies.each(PhysicsBody.class, Transform.class,
+            (entityId, body, transform) -> addBodyToWorld(body, transform));
     }
 
-    private void synchronizeEntityTransform(EntityView entity, PhysicsBody body) {
-        body.getRigidBody().setMotionState(new EntityMotionState(entity.get(Transform.class)));
+    /**
+     * Starts simulating the entity if it has both a body and a transform
+     */
+    private void registerEntity(int entityId) {
+        PhysicsBody body = registry.getComponent(entityId, PhysicsBody.class);
+        Transform transform = registry.getComponent(entityId, Transform.class);
+        if (body != null && transform != null) {
+            addBodyToWorld(body, transform);
+        }
     }
 
-    private void addBodyToWorld(PhysicsBody body) {
-        dynamicsWorld.addRigidBody(body.getRigidBody());
+    private void synchronizeEntityTransform(Transform transform, PhysicsBody body) {
+        body.getRigidBody().setMotionState(new EntityMotionState(transform));
+    }
+
+    private void addBodyToWorld(PhysicsBody body, Transform transform) {
+        if (simulatedBodies.add(body.getRigidBody())) {
+            synchronizeEntityTransform(transform, body);
+            dynamicsWorld.addRigidBody(body.getRigidBody());
+        }
+    }
+
+    private void removeBodyFromWorld(PhysicsBody body) {
+        if (simulatedBodies.remove(body.getRigidBody())) {
+            dynamicsWorld.removeRigidBody(body.getRigidBody());
+        }
     }
 
     private void renderDebugInfo() {
+        Camera camera = registry.resource(Camera.class);
+        if (camera == null) {
+            return;
+        }
         dynamicsWorld.debugDrawWorld();
-        var camera = registry.view(Camera.class).getFirst().get(Camera.class);
-        var projectionMatrix = cameraSystem.calculateProjectionMatrix(camera);
-        var viewMatrix = cameraSystem.calculateViewMatrix(camera);
+        FrameArena arena = FrameArena.current();
+        var projectionMatrix = cameraSystem.calculateProjectionMatrix(camera, arena.matrix4f());
+        var viewMatrix = cameraSystem.calculateViewMatrix(camera, arena.matrix4f());
         PhysicsDebugRenderer.drawLines(projectionMatrix, viewMatrix);
     }
 
@@ -8,17 +8,20 @@ import java.util.List;
 import java.util.Map;
 
 import org.chapzlock.core.application.System;
+import org.chapzlock.core.application.SystemAccess;
 import org.chapzlock.core.component.Camera;
 import org.chapzlock.core.component.Color;
+import org.chapzlock.core.component.Hidden;
 import org.chapzlock.core.component.Material;
 import org.chapzlock.core.component.Mesh;
 import org.chapzlock.core.component.PointLight;
 import org.chapzlock.core.component.Sky;
 import org.chapzlock.core.component.Transform;
-import org.chapzlock.core.entity.EntityView;
 import org.chapzlock.core.graphics.material.MaterialRenderer;
 import org.chapzlock.core.logging.Log;
 import org.chapzlock.core.registry.ComponentRegistry;
+import org.chapzlock.core.registry.EntityConsumer3;
+import org.chapzlock.core.registry.Query;
 import org.lwjgl.opengl.GL11;
 
 /**
@@ -26,11 +29,31 @@ import org.lwjgl.opengl.GL11;
  */
 public class RenderSystem implements System {
 
-    private final ComponentRegistry registry = ComponentRegistry.instance();
+    private final ComponentRegistry registry;
     private final MeshSystem meshSystem = MeshSystem.instance();
     private final MaterialSystem materialSystem = MaterialSystem.instance();
 
-    private final Map<Material, List<EntityView>> renderQueue = new HashMap<>();
+    private final Query renderables;
+
+    /**
+     * Batches are kept between frames and only cleared, so that steady state rendering does not allocate.
+     * Batches of materials that were not drawn during a frame are dropped.
+     */
+    private final Map<Material, RenderBatch> renderQueue = new HashMap<>();
+    /**
+     * Kept in a field so that submitting a frame does not allocate a new lambda
+     */
+    private final EntityConsumer3<Mesh, Material, Transform> renderQueueSubmitter = this::submitToRenderQueue;
+
+    public RenderSystem() {
+        this(ComponentRegistry.instance());
+    }
+
+    public RenderSystem(ComponentRegistry registry) {
+        this.registry = registry;
+        this.renderables = registry.query(Mesh.class, Material.class, Transform.class)
+            .without(Hidden.class);
+    }
 
     @Override
     public void onInit() {
@@ -38,26 +61,33 @@ public class RenderSystem implements System {
         GL11.glCullFace(GL11.GL_BACK);
     }
 
+    @Override
+    public SystemAccess access() {
+        return SystemAccess.builder()
+            .read(Camera.class)
+            .read(PointLight.class)
+            .read(Sky.class)
+            .read(Mesh.class)
+            .read(Material.class)
+            .read(Transform.class)
+            .build();
+    }
+
     @Override
     public void onRender(float deltaTime) {
-        Camera camera = registry.view(Camera.class)
-            .getFirst()
-            .get(Camera.class);
+        Camera camera = registry.resource(Camera.class);
         if (camera == null) {
             Log.error("No Camera found! Skipping rendering");
             return;
         }
-
-        PointLight light = getPointLight();
-        Sky sky = registry.view(Sky.class).getFirst().get(Sky.class);
-
+        PointLight light = registry.resource(PointLight.class);
+        Sky sky = registry.resource(Sky.class);
 
         renderEntities(camera, light, sky);
     }
 
     private void renderEntities(Camera camera, PointLight light, Sky sky) {
-        registry.view(Mesh.class, Material.class, Transform.class)
-            .forEach(this::submitToRenderQueue);
+        renderables.each(Mesh.class, Material.class, Transform.class, renderQueueSubmitter);
         renderSky(sky);
         renderEntitiesFromQueue(camera, light, sky);
         clearRenderQueue();
@@ -71,33 +101,59 @@ public class RenderSystem implements System {
     }
 
     private void clearRenderQueue() {
-        this.renderQueue.clear();
+        this.renderQueue.values().removeIf(RenderBatch::reset);
     }
 
-    private PointLight getPointLight() {
-        return registry.view(PointLight.class)
-            .getFirst()
-            .get(PointLight.class);
-    }
-
-    private void submitToRenderQueue(EntityView entity) {
-        this.renderQueue.computeIfAbsent(entity.get(Material.class), m -> new ArrayList<>()).add(entity);
+    private void submitToRenderQueue(int entityId, Mesh mesh, Material material, Transform transform) {
+        this.renderQueue.computeIfAbsent(material, m -> new RenderBatch()).add(mesh, transform);
     }
 
     private void renderEntitiesFromQueue(Camera camera, PointLight light, Sky sky) {
         for (var batch : renderQueue.entrySet()) {
             Material material = batch.getKey();
-            List<EntityView> renderables = batch.getValue();
+            RenderBatch renderBatch = batch.getValue();
+            if (renderBatch.isEmpty()) {
+                continue;
+            }
             MaterialRenderer materialRenderer = materialSystem.getRenderer(material);
             // Bind material/shader once & Load global uniforms once per batch
             materialRenderer.apply(material, camera, light, sky);
 
-            for (EntityView entity : renderables) {
-                materialRenderer.prepareEntity(entity, material);
-                meshSystem.render(entity.get(Mesh.class));
+            for (int i = 0; i < renderBatch.meshes.size(); i++) {
+                materialRenderer.prepareEntity(renderBatch.transforms.get(i), material);
+                meshSystem.render(renderBatch.meshes.get(i));
             }
             materialRenderer.unapply(material);
         }
     }
 
+    /**
+     * Meshes and their transforms that share the same material
+     */
+    private static final class RenderBatch {
+        private final List<Mesh> meshes = new ArrayList<>();
+        private final List<Transform> transforms = new ArrayList<>();
+
+        void add(Mesh mesh, Transform transform) {
+            meshes.add(mesh);
+            transforms.add(transform);
+        }
+
+        boolean isEmpty() {
+            return meshes.isEmpty();
+        }
+
+        /**
+         * Clears the batch for the next frame
+         *
+         * @return true if nothing was submitted to the batch this frame, so it can be dropped
+         */
+        boolean reset() {
+            boolean unused = meshes.isEmpty();
+            meshes.clear();
+            transforms.clear();
+            return unused;
+        }
+    }
+
 }
@@ -51,6 +51,11 @@ public class Window {
     private final WindowSpecification specs;
     private GLCapabilities glCapabilities;
     private final EventBus eventBus = EventBus.instance();
+    /**
+     * Reused by the mouse button callback, which always runs on the main thread
+     */
+    private final double[] cursorX = new double[1];
+    private final double[] cursorY = new double[1];
 
     public Window(WindowSpecification specs) {
         this.specs = specs;
@@ -120,34 +125,32 @@ public class Window {
                 glfwSetWindowShouldClose(window, true);
             }
             if (action == GLFW_PRESS) {
-                eventBus.publish(new KeyPressedEvent(key, mods));
+                eventBus.post(KeyPressedEvent.obtain(key, mods));
             } else if (action == GLFW_RELEASE) {
-                eventBus.publish(new KeyReleasedEvent(key, mods));
+                eventBus.post(KeyReleasedEvent.obtain(key, mods));
             }
         });
 
-        glfwSetCursorPosCallback(id, (window, xpos, ypos) -> eventBus.publish(new MouseMovedEvent(xpos, ypos)));
+        glfwSetCursorPosCallback(id, (window, xpos, ypos) -> eventBus.post(MouseMovedEvent.obtain(xpos, ypos)));
 
         glfwSetMouseButtonCallback(id, (window, button, action, mods) -> {
-            double[] x = new double[1];
-            double[] y = new double[1];
-            glfwGetCursorPos(window, x, y);
+            glfwGetCursorPos(window, cursorX, cursorY);
             if (action == GLFW_PRESS) {
-                eventBus.publish(new MouseButtonPressedEvent(button, x[0], y[0]));
+                eventBus.post(MouseButtonPressedEvent.obtain(button, cursorX[0], cursorY[0]));
             } else if (action == GLFW_RELEASE) {
-                eventBus.publish(new MouseButtonReleasedEvent(button, x[0], y[0]));
+                eventBus.post(MouseButtonReleasedEvent.obtain(button, cursorX[0], cursorY[0]));
             }
         });
 
-        glfwSetScrollCallback(id, (window, xOffset, yOffset) -> eventBus.publish(new MouseScrolledEvent(xOffset, yOffset)));
+        glfwSetScrollCallback(id, (window, xOffset, yOffset) -> eventBus.post(MouseScrolledEvent.obtain(xOffset, yOffset)));
 
         glfwSetFramebufferSizeCallback(id, (window, width, height) -> {
             specs.setHeight(height);
             specs.setWidth(width);
             GL11.glViewport(0, 0, width, height);
-            eventBus.publish(new WindowResizeEvent(window, width, height));
+            eventBus.post(WindowResizeEvent.obtain(window, width, height));
         });
-        glfwSetWindowCloseCallback(id, window -> eventBus.publish(new WindowCloseEvent(window)));
+        glfwSetWindowCloseCallback(id, window -> eventBus.post(WindowCloseEvent.obtain(window)));
 
     }
 
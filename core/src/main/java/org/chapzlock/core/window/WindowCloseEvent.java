@@ -1,6 +1,32 @@
 package org.chapzlock.core.window;
 
-import org.chapzlock.core.event.Event;
+import org.chapzlock.core.event.EventPool;
+import org.chapzlock.core.event.PooledEvent;
 
-public record WindowCloseEvent(long windowId) implements Event {
+/**
+ * The user requested to close a window. Pooled, see {@link PooledEvent}.
+ */
+public final class WindowCloseEvent extends PooledEvent {
+    private static final EventPool<WindowCloseEvent> POOL = new EventPool<>(WindowCloseEvent::new);
+
+    private long windowId;
+
+    private WindowCloseEvent() {
+        super(POOL);
+    }
+
+    /**
+     * @param windowId GLFW window handle
+     * @return an event from the pool, recycled after it has been posted
+     */
+    public static WindowCloseEvent obtain(long windowId) {
+        WindowCloseEvent event = POOL.acquire();
+        event.windowId = windowId;
+        return event;
+    }
+
+    public long windowId() {
+        checkNotReleased();
+        return windowId;
+    }
 }
@@ -1,6 +1,48 @@
 package org.chapzlock.core.window;
 
-import org.chapzlock.core.event.Event;
+import org.chapzlock.core.event.EventPool;
+import org.chapzlock.core.event.PooledEvent;
 
-public record WindowResizeEvent(long windowId, long width, long height) implements Event {
+/**
+ * The framebuffer of a window was resized. Pooled, see {@link PooledEvent}.
+ */
+public final class WindowResizeEvent extends PooledEvent {
+    private static final EventPool<WindowResizeEvent> POOL = new EventPool<>(WindowResizeEvent::new);
+
+    private long windowId;
+    private long width;
+    private long height;
+
+    private WindowResizeEvent() {
+        super(POOL);
+    }
+
+    /**
+     * @param windowId GLFW window handle
+     * @param width    new framebuffer width
+     * @param height   new framebuffer height
+     * @return an event from the pool, recycled after it has been posted
+     */
+    public static WindowResizeEvent obtain(long windowId, long width, long height) {
+        WindowResizeEvent event = POOL.acquire();
+        event.windowId = windowId;
+        event.width = width;
+        event.height = height;
+        return event;
+    }
+
+    public long windowId() {
+        checkNotReleased();
+        return windowId;
+    }
+
+    public long width() {
+        checkNotReleased();
+        return width;
+    }
+
+    public long height() {
+        checkNotReleased();
+        return height;
+    }
 }
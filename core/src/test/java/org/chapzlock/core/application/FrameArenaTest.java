@@ -0,0 +1,147 @@
+package org.chapzlock.core.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class FrameArenaTest {
+
+    @AfterEach
+    void tearDown() {
+        FrameArena.endFrame();
+    }
+
+    @Test
+    void endFrameOnAnotherThreadKeepsObjectsInUse() throws Exception {
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch frameEnded = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread worker = new Thread(() -> {
+            try {
+                Vector3f first = FrameArena.current().vector3f().set(1, 2, 3);
+                taken.countDown();
+                frameEnded.await(5, TimeUnit.SECONDS);
+                Vector3f second = FrameArena.current().vector3f();
+                assertNotSame(first, second);
+                assertEquals(1, first.x);
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        worker.start();
+
+        taken.await(5, TimeUnit.SECONDS);
+        FrameArena.endFrame();
+        frameEnded.countDown();
+        worker.join();
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    void threadsOnDifferentFrameCadencesDoNotShareObjects() throws Exception {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread fast = new Thread(() -> runFrames(10_000, 1, 2, failure));
+        Thread slow = new Thread(() -> runFrames(200, 50, 3, failure));
+        fast.start();
+        slow.start();
+        fast.join();
+        slow.join();
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    void resetGivesBackObjectsTakenSinceMark() {
+        FrameArena arena = FrameArena.current();
+        Vector3f kept = arena.vector3f();
+        long mark = arena.mark();
+        Vector3f scoped = arena.vector3f();
+        arena.matrix4f();
+
+        arena.reset(mark);
+
+        assertSame(scoped, arena.vector3f());
+        assertNotSame(kept, arena.vector3f());
+    }
+
+    @Test
+    void scopedUseNeverExhaustsArena() {
+        FrameArena arena = FrameArena.current();
+        for (int update = 0; update < 10_000; update++) {
+            long mark = arena.mark();
+            arena.vector3f();
+            arena.quaternionf();
+            arena.matrix4f();
+            arena.reset(mark);
+        }
+    }
+
+    @Test
+    void worldUpdatedOnOwnThreadNeverEndingFramesDoesNotExhaustArena() throws Exception {
+        World world = new World().addSystem(new System() {
+            @Override
+            public void onUpdate(float deltaTime) {
+                FrameArena arena = FrameArena.current();
+                arena.vector3f();
+                arena.matrix4f();
+            }
+        });
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread server = new Thread(() -> {
+            try {
+                for (int tick = 0; tick < 10_000; tick++) {
+                    world.update(0);
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        server.start();
+        server.join();
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    void exhaustionIsReported() {
+        FrameArena arena = FrameArena.current();
+        assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i <= 4096; i++) {
+                arena.vector3f();
+            }
+        });
+    }
+
+    /**
+     * Takes objects for a number of steps per frame and checks that none of them is handed out twice within a frame
+     */
+    private static void runFrames(int frames, int stepsPerFrame, int objectsPerStep,
+                                  AtomicReference<Throwable> failure) {
+        try {
+            for (int frame = 0; frame < frames; frame++) {
+                Vector3f[] taken = new Vector3f[stepsPerFrame * objectsPerStep];
+                for (int i = 0; i < taken.length; i++) {
+                    taken[i] = FrameArena.current().vector3f().set(frame, i, 0);
+                }
+                for (int i = 0; i < taken.length; i++) {
+                    assertEquals(i, taken[i].y);
+                    assertEquals(frame, taken[i].x);
+                }
+                FrameArena.endFrame();
+            }
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.chapzlock.core.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SystemSchedulerTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final List<String> log = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void readerRunsAfterEarlierWriter() {
+        SystemScheduler scheduler = new SystemScheduler(List.of(
+            new LoggingSystem("writer", access().write(Position.class).build(), 20),
+            new LoggingSystem("reader", access().read(Position.class).build(), 0)), pool);
+
+        for (int frame = 0; frame < 20; frame++) {
+            log.clear();
+            scheduler.update(0);
+            assertEquals(List.of("start writer", "end writer", "start reader", "end reader"), log);
+        }
+    }
+
+    @Test
+    void writerRunsAfterEarlierReader() {
+        SystemScheduler scheduler = new SystemScheduler(List.of(
+            new LoggingSystem("reader", access().read(Position.class).build(), 20),
+            new LoggingSystem("writer", access().write(Position.class).build(), 0)), pool);
+
+        scheduler.update(0);
+
+        assertEquals(List.of("start reader", "end reader", "start writer", "end writer"), log);
+    }
+
+    @Test
+    void nonConflictingSystemsRunConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        System first = new RendezvousSystem(access().read(Position.class).write(Velocity.class).build(), bothStarted);
+        System second = new RendezvousSystem(access().read(Position.class).build(), bothStarted);
+
+        new SystemScheduler(List.of(first, second), pool).update(0);
+
+        assertEquals(List.of("met", "met"), log);
+    }
+
+    @Test
+    void dependentWaitsForAllConflictingPredecessors() {
+        SystemScheduler scheduler = new SystemScheduler(List.of(
+            new LoggingSystem("position", access().write(Position.class).build(), 10),
+            new LoggingSystem("velocity", access().write(Velocity.class).build(), 20),
+            new LoggingSystem("both", access().read(Position.class).read(Velocity.class).build(), 0)), pool);
+
+        scheduler.update(0);
+
+        int both = log.indexOf("start both");
+        assertTrue(log.indexOf("end position") < both);
+        assertTrue(log.indexOf("end velocity") < both);
+    }
+
+    @Test
+    void exclusiveSystemIsBarrierOnCallingThread() {
+        Thread caller = Thread.currentThread();
+        Thread[] exclusiveThread = new Thread[1];
+        System exclusive = new System() {
+            @Override
+            public void onUpdate(float deltaTime) {
+                exclusiveThread[0] = Thread.currentThread();
+                log.add("exclusive");
+            }
+        };
+        SystemScheduler scheduler = new SystemScheduler(List.of(
+            new LoggingSystem("before", access().write(Position.class).build(), 10),
+            exclusive,
+            new LoggingSystem("after", access().write(Velocity.class).build(), 0)), pool);
+
+        scheduler.update(0);
+
+        assertEquals(List.of("start before", "end before", "exclusive", "start after", "end after"), log);
+        assertSame(caller, exclusiveThread[0]);
+    }
+
+    @Test
+    void failureIsRethrownOnCallingThread() {
+        IllegalStateException failure = new IllegalStateException("failed");
+        System failing = new System() {
+            @Override
+            public void onUpdate(float deltaTime) {
+                throw failure;
+            }
+
+            @Override
+            public SystemAccess access() {
+                return SystemAccess.builder().write(Position.class).build();
+            }
+        };
+        SystemScheduler scheduler = new SystemScheduler(List.of(
+            failing, new LoggingSystem("other", access().read(Velocity.class).build(), 0)), pool);
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> scheduler.update(0)));
+    }
+
+    private static SystemAccess.SystemAccessBuilder access() {
+        return SystemAccess.builder();
+    }
+
+    private class LoggingSystem implements System {
+        private final String name;
+        private final SystemAccess access;
+        private final long sleepMillis;
+
+        LoggingSystem(String name, SystemAccess access, long sleepMillis) {
+            this.name = name;
+            this.access = access;
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public void onUpdate(float deltaTime) {
+            log.add("start " + name);
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.add("end " + name);
+        }
+
+        @Override
+        public SystemAccess access() {
+            return access;
+        }
+    }
+
+    /**
+     * Only finishes once the other system has started too, which requires both to run at the same time
+     */
+    private class RendezvousSystem implements System {
+        private final SystemAccess access;
+        private final CountDownLatch bothStarted;
+
+        RendezvousSystem(SystemAccess access, CountDownLatch bothStarted) {
+            this.access = access;
+            this.bothStarted = bothStarted;
+        }
+
+        @Override
+        public void onUpdate(float deltaTime) {
+            bothStarted.countDown();
+            try {
+                if (bothStarted.await(5, TimeUnit.SECONDS)) {
+                    log.add("met");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public SystemAccess access() {
+            return access;
+        }
+    }
+
+    private static class Position implements Component {
+    }
+
+    private static class Velocity implements Component {
+    }
+}
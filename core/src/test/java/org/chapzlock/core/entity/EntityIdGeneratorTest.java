@@ -0,0 +1,76 @@
+package org.chapzlock.core.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+class EntityIdGeneratorTest {
+
+    @Test
+    void recycledIndexGetsNewGeneration() {
+        EntityIdGenerator generator = new EntityIdGenerator();
+        int first = generator.nextId();
+
+        assertTrue(generator.release(first));
+        int second = generator.nextId();
+
+        assertEquals(EntityIdGenerator.index(first), EntityIdGenerator.index(second));
+        assertEquals(EntityIdGenerator.generation(first) + 1, EntityIdGenerator.generation(second));
+        assertNotEquals(first, second);
+        assertFalse(generator.isAlive(first));
+        assertTrue(generator.isAlive(second));
+    }
+
+    @Test
+    void staleIdCanNotBeReleasedTwice() {
+        EntityIdGenerator generator = new EntityIdGenerator();
+        int first = generator.nextId();
+        generator.release(first);
+        int second = generator.nextId();
+
+        assertFalse(generator.release(first));
+        assertTrue(generator.isAlive(second));
+    }
+
+    @Test
+    void releasedIndicesAreReusedInReleaseOrder() {
+        EntityIdGenerator generator = new EntityIdGenerator();
+        int a = generator.nextId();
+        int b = generator.nextId();
+        generator.release(b);
+        generator.release(a);
+
+        assertEquals(EntityIdGenerator.index(b), EntityIdGenerator.index(generator.nextId()));
+        assertEquals(EntityIdGenerator.index(a), EntityIdGenerator.index(generator.nextId()));
+    }
+
+    @Test
+    void idZeroIsNeverHandedOut() {
+        EntityIdGenerator generator = new EntityIdGenerator();
+
+        assertNotEquals(0, EntityIdGenerator.index(generator.nextId()));
+        assertFalse(generator.isAlive(0));
+    }
+
+    @Test
+    void readRestoresGenerationsAndFreeIndices() {
+        EntityIdGenerator generator = new EntityIdGenerator();
+        int kept = generator.nextId();
+        int released = generator.nextId();
+        generator.release(released);
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        generator.write(buffer);
+
+        EntityIdGenerator restored = new EntityIdGenerator();
+        restored.read(buffer.flip());
+
+        assertTrue(restored.isAlive(kept));
+        assertFalse(restored.isAlive(released));
+        assertEquals(generator.nextId(), restored.nextId());
+    }
+}
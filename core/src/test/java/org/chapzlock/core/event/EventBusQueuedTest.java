@@ -0,0 +1,135 @@
+package org.chapzlock.core.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.chapzlock.core.input.mouse.MouseMovedEvent;
+import org.chapzlock.core.input.mouse.MouseScrolledEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EventBusQueuedTest {
+    private final EventBus bus = EventBus.instance();
+    private final List<String> dispatched = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bus.setDispatchMode(DispatchMode.QUEUED);
+        bus.setCoalescer(MouseMovedEvent.class, EventCoalescer.keepLast());
+        bus.setCoalescer(MouseScrolledEvent.class, (pending, next) ->
+            MouseScrolledEvent.obtain(pending.xOffset() + next.xOffset(), pending.yOffset() + next.yOffset()));
+        bus.subscribe(MouseMovedEvent.class, event -> record("move " + event.x() + "," + event.y()));
+        bus.subscribe(MouseScrolledEvent.class,
+            event -> record("scroll " + event.xOffset() + "," + event.yOffset()));
+        bus.subscribe(KeyEvent.class, event -> record("key " + event.key()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.dispatchQueued();
+        bus.clearAllListeners();
+        bus.setCoalescer(MouseMovedEvent.class, null);
+        bus.setCoalescer(MouseScrolledEvent.class, null);
+        bus.setDispatchMode(DispatchMode.SYNCHRONOUS);
+    }
+
+    @Test
+    void postedEventsWaitForDispatchQueued() {
+        bus.post(new KeyEvent(1));
+
+        assertEquals(List.of(), dispatched);
+        assertEquals(1, bus.dispatchQueued());
+        assertEquals(List.of("key 1"), dispatched);
+    }
+
+    @Test
+    void keepLastDispatchesOnlyLatestPosition() {
+        bus.post(MouseMovedEvent.obtain(1, 1));
+        bus.post(MouseMovedEvent.obtain(2, 2));
+        bus.post(MouseMovedEvent.obtain(3, 4));
+
+        assertEquals(3, bus.dispatchQueued());
+        assertEquals(List.of("move 3.0,4.0"), dispatched);
+    }
+
+    @Test
+    void scrollOffsetsAreAccumulated() {
+        bus.post(MouseScrolledEvent.obtain(0, 1));
+        bus.post(MouseScrolledEvent.obtain(1, 2));
+        bus.post(MouseScrolledEvent.obtain(0.5, -1));
+
+        bus.dispatchQueued();
+
+        assertEquals(List.of("scroll 1.5,2.0"), dispatched);
+    }
+
+    @Test
+    void coalescedEventsKeepOrderRelativeToOtherEvents() {
+        bus.post(MouseMovedEvent.obtain(1, 0));
+        bus.post(MouseScrolledEvent.obtain(0, 1));
+        bus.post(MouseMovedEvent.obtain(2, 0));
+        bus.post(new KeyEvent(1));
+        bus.post(MouseScrolledEvent.obtain(0, 2));
+        bus.post(MouseMovedEvent.obtain(3, 0));
+        bus.post(MouseScrolledEvent.obtain(0, 3));
+        bus.post(new KeyEvent(2));
+        bus.post(MouseMovedEvent.obtain(4, 0));
+
+        bus.dispatchQueued();
+
+        assertEquals(List.of(
+            "move 2.0,0.0", "scroll 0.0,1.0",
+            "key 1",
+            "scroll 0.0,5.0", "move 3.0,0.0",
+            "key 2",
+            "move 4.0,0.0"), dispatched);
+    }
+
+    @Test
+    void mergedAwayEventsAreReleasedBeforeDispatch() {
+        MouseMovedEvent first = MouseMovedEvent.obtain(1, 1);
+        MouseMovedEvent second = MouseMovedEvent.obtain(2, 2);
+        MouseMovedEvent last = MouseMovedEvent.obtain(3, 3);
+        bus.post(first);
+        bus.post(second);
+        bus.post(last);
+        List<Boolean> checked = new ArrayList<>();
+        bus.subscribe(MouseMovedEvent.class, event -> {
+            assertThrows(IllegalStateException.class, first::x);
+            assertThrows(IllegalStateException.class, second::x);
+            assertEquals(3, event.x());
+            return checked.add(true);
+        });
+
+        bus.dispatchQueued();
+
+        assertEquals(List.of(true), checked);
+        assertThrows(IllegalStateException.class, last::x);
+    }
+
+    @Test
+    void mergedScrollEventsAreAllReleased() {
+        MouseScrolledEvent first = MouseScrolledEvent.obtain(0, 1);
+        MouseScrolledEvent second = MouseScrolledEvent.obtain(0, 2);
+        bus.post(first);
+        bus.post(second);
+
+        bus.dispatchQueued();
+
+        assertThrows(IllegalStateException.class, first::yOffset);
+        assertThrows(IllegalStateException.class, second::yOffset);
+        assertEquals(List.of("scroll 0.0,3.0"), dispatched);
+    }
+
+    private boolean record(String event) {
+        dispatched.add(event);
+        return false;
+    }
+
+    private record KeyEvent(int key) implements Event {
+    }
+}
@@ -0,0 +1,150 @@
+package org.chapzlock.core.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class EventBusTest {
+    private final EventBus bus = EventBus.instance();
+    private final List<String> calls = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        bus.clearAllListeners();
+    }
+
+    @Test
+    void listenersRunByDescendingPriority() {
+        bus.subscribe(Derived.class, listener("low", false), -1);
+        bus.subscribe(Derived.class, listener("high", false), 5);
+        bus.subscribe(Derived.class, listener("default", false));
+
+        assertFalse(bus.publish(new Derived()));
+
+        assertEquals(List.of("high", "default", "low"), calls);
+    }
+
+    @Test
+    void priorityOrdersAcrossTypeHierarchy() {
+        bus.subscribe(Derived.class, listener("derived", false));
+        bus.subscribe(Marker.class, listener("interface", false), 10);
+        bus.subscribe(Base.class, listener("base", false), 3);
+
+        bus.publish(new Derived());
+
+        assertEquals(List.of("interface", "base", "derived"), calls);
+    }
+
+    @Test
+    void tiesFollowHierarchyThenSubscriptionOrder() {
+        bus.subscribe(Marker.class, listener("interface", false));
+        bus.subscribe(Base.class, listener("base 1", false));
+        bus.subscribe(Derived.class, listener("derived 1", false));
+        bus.subscribe(Base.class, listener("base 2", false));
+        bus.subscribe(Derived.class, listener("derived 2", false));
+
+        bus.publish(new Derived());
+
+        assertEquals(List.of("derived 1", "derived 2", "base 1", "base 2", "interface"), calls);
+    }
+
+    @Test
+    void consumingListenerStopsLowerPrioritiesOfAllTypes() {
+        bus.subscribe(Derived.class, listener("derived", false), -5);
+        bus.subscribe(Base.class, listener("overlay", true), 10);
+        bus.subscribe(Marker.class, listener("interface", false), 20);
+        bus.subscribe(Base.class, listener("base", false), 10);
+        bus.subscribe(Derived.class, listener("gameplay", false));
+
+        assertTrue(bus.publish(new Derived()));
+
+        assertEquals(List.of("interface", "overlay"), calls);
+    }
+
+    @Test
+    void filteredListenerDoesNotConsume() {
+        bus.subscribe(Base.class, listener("filtered", true), event -> false, 10);
+        bus.subscribe(Base.class, listener("default", false));
+
+        assertFalse(bus.publish(new Base()));
+
+        assertEquals(List.of("default"), calls);
+    }
+
+    @Test
+    void listenerSubscribedAfterDispatchIsCalled() {
+        bus.subscribe(Derived.class, listener("first", false));
+        bus.publish(new Derived());
+        calls.clear();
+
+        bus.subscribe(Derived.class, listener("second", false));
+        bus.publish(new Derived());
+
+        assertEquals(List.of("first", "second"), calls);
+    }
+
+    @Test
+    void supertypeListenerSubscribedAfterDispatchIsCalled() {
+        bus.publish(new Derived());
+        bus.publish(new Base());
+
+        bus.subscribe(Marker.class, listener("interface", false));
+        bus.subscribe(Base.class, listener("base", false));
+        bus.publish(new Derived());
+        bus.publish(new Base());
+
+        assertEquals(List.of("base", "interface", "base", "interface"), calls);
+    }
+
+    @Test
+    void unsubscribedListenerIsNoLongerCalled() {
+        Subscription derived = bus.subscribe(Derived.class, listener("derived", false));
+        Subscription base = bus.subscribe(Base.class, listener("base", false));
+        bus.subscribe(Marker.class, listener("interface", false));
+        bus.publish(new Derived());
+        calls.clear();
+
+        base.unsubscribe();
+        bus.publish(new Derived());
+        derived.unsubscribe();
+        bus.publish(new Derived());
+
+        assertEquals(List.of("derived", "interface", "interface"), calls);
+    }
+
+    @Test
+    void clearedSupertypeListenersAreNoLongerCalled() {
+        bus.subscribe(Base.class, listener("base", false));
+        bus.subscribe(Derived.class, listener("derived", false));
+        bus.publish(new Derived());
+        calls.clear();
+
+        bus.clearListenersFor(Base.class);
+        bus.publish(new Derived());
+        bus.publish(new Base());
+
+        assertEquals(List.of("derived"), calls);
+    }
+
+    private EventListener<Event> listener(String name, boolean consume) {
+        return event -> {
+            calls.add(name);
+            return consume;
+        };
+    }
+
+    private interface Marker extends Event {
+    }
+
+    private static class Base implements Marker {
+    }
+
+    private static final class Derived extends Base {
+    }
+}
@@ -0,0 +1,124 @@
+package org.chapzlock.core.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class EventQueueTest {
+
+    @Test
+    void rejectsCapacityThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new EventQueue(100));
+    }
+
+    @Test
+    void drainsInOfferOrderAcrossWrapAround() {
+        EventQueue queue = new EventQueue(4);
+        List<Event> drained = new ArrayList<>();
+        int next = 0;
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(queue.offer(new Numbered(0, next++)));
+            }
+            assertEquals(3, queue.drain(drained::add));
+        }
+
+        for (int i = 0; i < drained.size(); i++) {
+            assertEquals(i, ((Numbered) drained.get(i)).sequence);
+        }
+    }
+
+    @Test
+    void rejectsEventsWhenFull() {
+        EventQueue queue = new EventQueue(2);
+
+        assertTrue(queue.offer(new Numbered(0, 0)));
+        assertTrue(queue.offer(new Numbered(0, 1)));
+        assertFalse(queue.offer(new Numbered(0, 2)));
+        assertEquals(2, queue.drain(event -> { }));
+        assertTrue(queue.offer(new Numbered(0, 3)));
+    }
+
+    @Test
+    void eventsOfferedWhileDrainingWaitForNextDrain() {
+        EventQueue queue = new EventQueue(8);
+        queue.offer(new Numbered(0, 0));
+        List<Event> drained = new ArrayList<>();
+
+        assertEquals(1, queue.drain(event -> {
+            drained.add(event);
+            queue.offer(new Numbered(0, 1));
+        }));
+        assertEquals(1, drained.size());
+        assertEquals(1, queue.drain(drained::add));
+        assertEquals(1, ((Numbered) drained.get(1)).sequence);
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAndKeepTheirOrder() throws InterruptedException {
+        int producers = 4;
+        int eventsPerProducer = 100_000;
+        EventQueue queue = new EventQueue(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger(producers);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    Numbered event = new Numbered(producer, i);
+                    while (!queue.offer(event)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                running.decrementAndGet();
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        int[] nextSequence = new int[producers];
+        int[] received = new int[1];
+        start.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (running.get() > 0 || received[0] < producers * eventsPerProducer) {
+            queue.drain(event -> {
+                Numbered numbered = (Numbered) event;
+                assertEquals(nextSequence[numbered.producer], numbered.sequence);
+                nextSequence[numbered.producer]++;
+                received[0]++;
+            });
+            assertTrue(System.nanoTime() < deadline, "Producers did not finish in time");
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(producers * eventsPerProducer, received[0]);
+        assertEquals(0, queue.drain(event -> { }));
+    }
+
+    private static final class Numbered implements Event {
+        private final int producer;
+        private final int sequence;
+
+        Numbered(int producer, int sequence) {
+            this.producer = producer;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.chapzlock.core.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PooledEventTest {
+    private final EventBus bus = EventBus.instance();
+    private final EventPool<Counter> pool = new EventPool<>(() -> new Counter(this.pool));
+
+    @AfterEach
+    void tearDown() {
+        bus.dispatchQueued();
+        bus.clearAllListeners();
+        bus.setCoalescer(Counter.class, null);
+        bus.setDispatchMode(DispatchMode.SYNCHRONOUS);
+        EventPool.setRetentionChecks(false);
+    }
+
+    @Test
+    void postedEventIsReusedAfterDispatch() {
+        List<Integer> seen = new ArrayList<>();
+        bus.subscribe(Counter.class, event -> {
+            seen.add(event.value());
+            return false;
+        });
+        Counter first = obtain(1);
+
+        bus.post(first);
+        Counter second = obtain(2);
+
+        assertSame(first, second);
+        assertEquals(2, second.value());
+        bus.post(second);
+        assertEquals(List.of(1, 2), seen);
+    }
+
+    @Test
+    void publishReleasesEvent() {
+        Counter event = obtain(1);
+
+        bus.publish(event);
+
+        assertThrows(IllegalStateException.class, event::value);
+        assertSame(event, obtain(2));
+    }
+
+    @Test
+    void queuedEventIsReleasedAfterDispatchQueued() {
+        bus.setDispatchMode(DispatchMode.QUEUED);
+        Counter event = obtain(1);
+
+        bus.post(event);
+        assertEquals(1, event.value());
+        bus.dispatchQueued();
+
+        assertThrows(IllegalStateException.class, event::value);
+    }
+
+    @Test
+    void retainedEventFailsWithRetentionChecks() {
+        EventPool.setRetentionChecks(true);
+        List<Counter> retained = new ArrayList<>();
+        bus.subscribe(Counter.class, event -> {
+            retained.add(event);
+            return false;
+        });
+        Counter event = obtain(1);
+
+        bus.post(event);
+
+        assertThrows(IllegalStateException.class, () -> retained.get(0).value());
+        assertNotSame(event, obtain(2));
+    }
+
+    @Test
+    void coalescerReleasesPendingAndNextEvent() {
+        bus.setDispatchMode(DispatchMode.QUEUED);
+        bus.setCoalescer(Counter.class, (pending, next) -> obtain(pending.value() + next.value()));
+        List<Integer> seen = new ArrayList<>();
+        bus.subscribe(Counter.class, event -> {
+            seen.add(event.value());
+            return false;
+        });
+        Counter pending = obtain(1);
+        Counter next = obtain(2);
+
+        bus.post(pending);
+        bus.post(next);
+        bus.dispatchQueued();
+
+        assertEquals(List.of(3), seen);
+        assertThrows(IllegalStateException.class, pending::value);
+        assertThrows(IllegalStateException.class, next::value);
+    }
+
+    private Counter obtain(int value) {
+        Counter event = pool.acquire();
+        event.value = value;
+        return event;
+    }
+
+    private static final class Counter extends PooledEvent {
+        private int value;
+
+        private Counter(EventPool<Counter> pool) {
+            super(pool);
+        }
+
+        int value() {
+            checkNotReleased();
+            return value;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.chapzlock.core.registry;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.chapzlock.core.application.Component;
+import org.junit.jupiter.api.Test;
+
+class ArchetypeTest {
+    private static final int POSITION = 0;
+    private static final int VELOCITY = 1;
+    private static final int TAG = 2;
+
+    @Test
+    void tagsArePartOfSignatureWithoutColumn() {
+        Archetype archetype = archetype(POSITION, TAG);
+
+        assertTrue(archetype.has(TAG));
+        assertEquals(-1, archetype.columnOf(TAG));
+        assertEquals(0, archetype.columnOf(POSITION));
+        assertEquals(-1, archetype.columnOf(VELOCITY));
+        assertArrayEquals(new int[]{POSITION}, archetype.typeIds());
+    }
+
+    @Test
+    void removingLastRowMovesNothing() {
+        Archetype archetype = archetype(POSITION);
+        addRow(archetype, 1);
+        addRow(archetype, 2);
+
+        assertEquals(-1, archetype.removeRow(1));
+        assertEquals(1, archetype.size());
+        assertNull(archetype.column(0)[1]);
+    }
+
+    @Test
+    void removingRowSwapsLastRowIntoPlace() {
+        Archetype archetype = archetype(POSITION, VELOCITY);
+        Component[] positions = new Component[3];
+        for (int i = 0; i < 3; i++) {
+            int row = addRow(archetype, i + 1);
+            positions[i] = archetype.get(row, 0);
+            archetype.setChangeTick(row, 1, 10 + i);
+        }
+
+        assertEquals(3, archetype.removeRow(0));
+
+        assertEquals(2, archetype.size());
+        assertArrayEquals(new int[]{3, 2}, Arrays.copyOf(archetype.entities(), 2));
+        assertSame(positions[2], archetype.get(0, 0));
+        assertSame(positions[1], archetype.get(1, 0));
+        assertEquals(12, archetype.changeTicks(1)[0]);
+        assertNull(archetype.column(0)[2]);
+        assertNull(archetype.column(1)[2]);
+    }
+
+    @Test
+    void copyRowCopiesSharedColumnsOnly() {
+        Archetype from = archetype(POSITION, VELOCITY);
+        Archetype to = archetype(POSITION, TAG);
+        int fromRow = addRow(from, 7);
+        from.setChangeTick(fromRow, 0, 5);
+
+        int toRow = to.addRow(7);
+        from.copyRowTo(fromRow, to, toRow);
+
+        assertSame(from.get(fromRow, 0), to.get(toRow, 0));
+        assertEquals(5, to.changeTicks(0)[toRow]);
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        Archetype archetype = archetype(POSITION);
+        for (int i = 1; i <= 100; i++) {
+            addRow(archetype, i);
+        }
+
+        assertEquals(100, archetype.size());
+        assertEquals(100, archetype.entities()[99]);
+        assertEquals(new Value(99), archetype.get(99, 0));
+    }
+
+    private static Archetype archetype(int... typeIds) {
+        BitSet signature = new BitSet();
+        for (int typeId : typeIds) {
+            signature.set(typeId);
+        }
+        BitSet tags = new BitSet();
+        tags.set(TAG);
+        return new Archetype(0, signature, tags);
+    }
+
+    /**
+     * Adds a row with a distinct value in every column
+     */
+    private static int addRow(Archetype archetype, int entityId) {
+        int row = archetype.addRow(entityId);
+        for (int column = 0; column < archetype.typeIds().length; column++) {
+            archetype.set(row, column, new Value(row));
+        }
+        return row;
+    }
+
+    private record Value(int row) implements Component {
+    }
+}
@@ -0,0 +1,132 @@
+package org.chapzlock.core.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.chapzlock.core.application.Component;
+import org.chapzlock.core.application.Tag;
+import org.junit.jupiter.api.Test;
+
+class ComponentRegistrySnapshotTest {
+
+    @Test
+    void restoresTaggedEntitiesIntoFreshRegistry() {
+        ComponentRegistry source = newRegistry(false);
+        int plain = source.createEntity();
+        source.addComponent(plain, new Health(10));
+        int tagged = source.createEntity();
+        source.addComponent(tagged, new Health(20));
+        source.addComponent(tagged, new Team(7));
+        int tagOnly = source.createEntity();
+        source.addComponent(tagOnly, new Team(7));
+        int destroyed = source.createEntity();
+        source.destroyEntity(destroyed);
+        source.setResource(new Score(42));
+        source.sync();
+
+        ByteBuffer snapshot = source.snapshot(ByteBuffer.allocate(16));
+
+        // codecs registered in another order, so type ids differ from the source registry
+        ComponentRegistry target = newRegistry(true);
+        target.restore(snapshot);
+
+        assertFalse(snapshot.hasRemaining());
+        assertTrue(target.isAlive(plain));
+        assertTrue(target.isAlive(tagged));
+        assertTrue(target.isAlive(tagOnly));
+        assertFalse(target.isAlive(destroyed));
+        assertEquals(10, target.getComponent(plain, Health.class).value);
+        assertNull(target.getComponent(plain, Team.class));
+        assertEquals(20, target.getComponent(tagged, Health.class).value);
+        assertEquals(7, target.getComponent(tagged, Team.class).marker);
+        assertNull(target.getComponent(tagOnly, Health.class));
+        assertSame(target.getComponent(tagged, Team.class), target.getComponent(tagOnly, Team.class));
+        assertEquals(42, target.resource(Score.class).value);
+        assertNotNull(target.query(Health.class, Team.class));
+        int[] count = new int[1];
+        target.each(Team.class, (entityId, team) -> count[0]++);
+        assertEquals(2, count[0]);
+    }
+
+    @Test
+    void keepsOwnTagInstanceWhenRestoringIntoSameRegistry() {
+        ComponentRegistry registry = newRegistry(false);
+        Team team = new Team(3);
+        int tagged = registry.createEntity();
+        registry.addComponent(tagged, team);
+        registry.addComponent(tagged, new Health(5));
+        registry.sync();
+
+        ByteBuffer snapshot = registry.snapshot(ByteBuffer.allocate(1024));
+        registry.restore(snapshot);
+
+        assertFalse(snapshot.hasRemaining());
+        assertSame(team, registry.getComponent(tagged, Team.class));
+        assertEquals(5, registry.getComponent(tagged, Health.class).value);
+    }
+
+    private static ComponentRegistry newRegistry(boolean reversed) {
+        ComponentRegistry registry = new ComponentRegistry();
+        if (reversed) {
+            registry.registerCodec(Score.class, new ScoreCodec());
+            registry.registerCodec(Team.class, new TeamCodec());
+            registry.registerCodec(Health.class, new HealthCodec());
+        } else {
+            registry.registerCodec(Health.class, new HealthCodec());
+            registry.registerCodec(Team.class, new TeamCodec());
+            registry.registerCodec(Score.class, new ScoreCodec());
+        }
+        return registry;
+    }
+
+    private record Health(int value) implements Component {
+    }
+
+    private record Score(int value) implements Component {
+    }
+
+    private record Team(int marker) implements Tag {
+    }
+
+    private static class HealthCodec implements ComponentCodec<Health> {
+        @Override
+        public void write(Health component, ByteBuffer buffer) {
+            buffer.putInt(component.value);
+        }
+
+        @Override
+        public Health read(ByteBuffer buffer) {
+            return new Health(buffer.getInt());
+        }
+    }
+
+    private static class ScoreCodec implements ComponentCodec<Score> {
+        @Override
+        public void write(Score component, ByteBuffer buffer) {
+            buffer.putInt(component.value);
+        }
+
+        @Override
+        public Score read(ByteBuffer buffer) {
+            return new Score(buffer.getInt());
+        }
+    }
+
+    private static class TeamCodec implements ComponentCodec<Team> {
+        @Override
+        public void write(Team component, ByteBuffer buffer) {
+            buffer.putInt(component.marker);
+        }
+
+        @Override
+        public Team read(ByteBuffer buffer) {
+            return new Team(buffer.getInt());
+        }
+    }
+}
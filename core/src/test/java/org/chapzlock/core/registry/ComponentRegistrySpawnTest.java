@@ -0,0 +1,133 @@
+package org.chapzlock.core.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.chapzlock.core.application.Component;
+import org.chapzlock.core.application.Tag;
+import org.chapzlock.core.component.Transform;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ComponentRegistrySpawnTest {
+    private ComponentRegistry registry;
+    private final List<Integer> added = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new ComponentRegistry();
+        registry.onAdd(Health.class, (entityId, health) -> added.add(entityId));
+    }
+
+    @Test
+    void spawnsEntitiesWithAllComponents() {
+        EntityArchetype archetype = registry.archetype(Health.class, Transform.class, Marked.class);
+
+        int[] ids = registry.spawn(3, archetype, (index, entity) -> entity
+            .set(new Health(index))
+            .set(new Transform())
+            .set(new Marked()));
+        registry.sync();
+
+        assertEquals(3, archetype.size());
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(new Health(i), registry.getComponent(ids[i], Health.class));
+            assertNotNull(registry.getComponent(ids[i], Marked.class));
+        }
+        assertEquals(3, registry.transforms().size());
+        assertEquals(List.of(ids[0], ids[1], ids[2]), added);
+    }
+
+    @Test
+    void missingComponentRollsBackWholeBatch() {
+        int existing = registry.createEntity();
+        registry.addComponent(existing, new Health(-1));
+        registry.addComponent(existing, new Transform());
+        registry.sync();
+        added.clear();
+        EntityArchetype archetype = registry.archetype(Health.class, Transform.class);
+        int transformsBefore = registry.transforms().size();
+
+        assertThrows(IllegalStateException.class, () -> registry.spawn(4, archetype, (index, entity) -> {
+            entity.set(new Health(index));
+            if (index != 2) {
+                entity.set(new Transform());
+            }
+        }));
+        registry.sync();
+
+        assertEquals(1, archetype.size());
+        assertEquals(transformsBefore, registry.transforms().size());
+        assertTrue(added.isEmpty());
+        int[] count = new int[1];
+        registry.each(Health.class, (entityId, health) -> {
+            assertNotNull(health);
+            count[0]++;
+        });
+        assertEquals(1, count[0]);
+        assertTrue(registry.isAlive(existing));
+        assertNotNull(registry.snapshot(ByteBuffer.allocate(1024)));
+    }
+
+    @Test
+    void rolledBackIdsAreReusedAndNotAlive() {
+        EntityArchetype archetype = registry.archetype(Health.class);
+        int[][] spawned = new int[1][];
+        List<Integer> attempted = new ArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> spawned[0] = registry.spawn(3, archetype,
+            (index, entity) -> {
+                attempted.add(entity.getId());
+                if (index < 2) {
+                    entity.set(new Health(index));
+                }
+            }));
+
+        for (int id : attempted) {
+            assertFalse(registry.isAlive(id));
+        }
+        int[] ids = registry.spawn(3, archetype, (index, entity) -> entity.set(new Health(index)));
+        for (int i = 0; i < ids.length; i++) {
+            assertTrue(registry.isAlive(ids[i]));
+            assertEquals(new Health(i), registry.getComponent(ids[i], Health.class));
+        }
+        assertEquals(3, archetype.size());
+    }
+
+    @Test
+    void initializerFailureRollsBack() {
+        EntityArchetype archetype = registry.archetype(Health.class);
+
+        assertThrows(IllegalArgumentException.class, () -> registry.spawn(2, archetype,
+            (index, entity) -> entity.set(new Speed(index))));
+
+        assertEquals(0, archetype.size());
+    }
+
+    @Test
+    void rejectsArchetypeOfAnotherRegistry() {
+        ComponentRegistry other = new ComponentRegistry();
+        EntityArchetype foreign = other.archetype(Health.class);
+
+        assertThrows(IllegalArgumentException.class, () -> registry.spawn(1, foreign,
+            (index, entity) -> entity.set(new Health(index))));
+
+        assertEquals(0, foreign.size());
+    }
+
+    private record Health(int value) implements Component {
+    }
+
+    private record Speed(int value) implements Component {
+    }
+
+    private record Marked() implements Tag {
+    }
+}
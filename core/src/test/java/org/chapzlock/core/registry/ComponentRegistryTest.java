@@ -0,0 +1,158 @@
+package org.chapzlock.core.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.chapzlock.core.application.Component;
+import org.chapzlock.core.application.Tag;
+import org.chapzlock.core.entity.EntityIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ComponentRegistryTest {
+    private ComponentRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ComponentRegistry();
+    }
+
+    @Test
+    void addingComponentMovesEntityAndKeepsExistingComponents() {
+        int entity = registry.createEntity();
+        Health health = new Health(5);
+        registry.addComponent(entity, health);
+        Speed speed = new Speed(2);
+
+        registry.addComponent(entity, speed);
+
+        assertSame(health, registry.getComponent(entity, Health.class));
+        assertSame(speed, registry.getComponent(entity, Speed.class));
+    }
+
+    @Test
+    void addingExistingComponentReplacesItInPlace() {
+        int entity = registry.createEntity();
+        registry.addComponent(entity, new Health(5));
+        Health replacement = new Health(6);
+
+        registry.addComponent(entity, replacement);
+
+        assertSame(replacement, registry.getComponent(entity, Health.class));
+        assertEquals(1, count(Health.class));
+    }
+
+    @Test
+    void removingComponentMovesEntityBack() {
+        int entity = registry.createEntity();
+        Health health = new Health(5);
+        registry.addComponents(entity, health, new Speed(2), new Marked());
+
+        registry.removeComponent(entity, Speed.class);
+
+        assertSame(health, registry.getComponent(entity, Health.class));
+        assertNull(registry.getComponent(entity, Speed.class));
+        assertNotNull(registry.getComponent(entity, Marked.class));
+
+        registry.removeComponent(entity, Marked.class);
+        assertNull(registry.getComponent(entity, Marked.class));
+        assertTrue(registry.isAlive(entity));
+    }
+
+    @Test
+    void movingEntityOutOfArchetypeFixesRowOfSwappedEntity() {
+        int[] entities = createWithHealth(4);
+
+        // the last entity of the archetype is swapped into the row of the first one
+        registry.addComponent(entities[0], new Speed(1));
+
+        assertEquals(new Health(0), registry.getComponent(entities[0], Health.class));
+        for (int i = 1; i < entities.length; i++) {
+            assertEquals(new Health(i), registry.getComponent(entities[i], Health.class));
+        }
+        assertEquals(4, count(Health.class));
+    }
+
+    @Test
+    void destroyingEntityFixesRowOfSwappedEntity() {
+        int[] entities = createWithHealth(4);
+
+        registry.destroyEntity(entities[1]);
+        registry.removeComponent(entities[0], Health.class);
+
+        assertNull(registry.getComponent(entities[1], Health.class));
+        assertNull(registry.getComponent(entities[0], Health.class));
+        assertEquals(new Health(2), registry.getComponent(entities[2], Health.class));
+        assertEquals(new Health(3), registry.getComponent(entities[3], Health.class));
+
+        Map<Integer, Health> iterated = new HashMap<>();
+        registry.each(Health.class, (entityId, health) -> iterated.put(entityId, health));
+        assertEquals(Map.of(entities[2], new Health(2), entities[3], new Health(3)), iterated);
+    }
+
+    @Test
+    void staleHandleDoesNotResolveToRecycledEntity() {
+        int stale = registry.createEntity();
+        registry.addComponent(stale, new Health(1));
+        registry.destroyEntity(stale);
+        int recycled = registry.createEntity();
+        registry.addComponent(recycled, new Health(2));
+
+        assertEquals(EntityIdGenerator.index(stale), EntityIdGenerator.index(recycled));
+        assertFalse(registry.isAlive(stale));
+        assertNull(registry.getComponent(stale, Health.class));
+        assertThrows(IllegalArgumentException.class, () -> registry.addComponent(stale, new Speed(1)));
+
+        registry.removeComponent(stale, Health.class);
+        registry.destroyEntity(stale);
+
+        assertTrue(registry.isAlive(recycled));
+        assertEquals(new Health(2), registry.getComponent(recycled, Health.class));
+    }
+
+    @Test
+    void commandsForStaleHandleAreIgnored() {
+        int stale = registry.createEntity();
+        registry.destroyEntity(stale);
+        int recycled = registry.createEntity();
+
+        registry.commands().addComponent(stale, new Health(1));
+        registry.commands().destroy(stale);
+        registry.sync();
+
+        assertTrue(registry.isAlive(recycled));
+        assertNull(registry.getComponent(recycled, Health.class));
+    }
+
+    private int[] createWithHealth(int count) {
+        int[] entities = new int[count];
+        for (int i = 0; i < count; i++) {
+            entities[i] = registry.createEntity();
+            registry.addComponent(entities[i], new Health(i));
+        }
+        return entities;
+    }
+
+    private int count(Class<? extends Component> type) {
+        int[] count = new int[1];
+        registry.each(type, (entityId, component) -> count[0]++);
+        return count[0];
+    }
+
+    private record Health(int value) implements Component {
+    }
+
+    private record Speed(int value) implements Component {
+    }
+
+    private record Marked() implements Tag {
+    }
+}
@@ -0,0 +1,107 @@
+package org.chapzlock.core.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.chapzlock.core.application.Component;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EntityCommandBufferTest {
+    private ComponentRegistry registry;
+    private EntityCommandBuffer commands;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ComponentRegistry();
+        commands = registry.commands();
+    }
+
+    @Test
+    void commandsApplyOnlyAtSync() {
+        int entity = commands.spawn();
+        commands.addComponent(entity, new Health(1));
+
+        assertFalse(registry.isAlive(entity));
+        assertEquals(2, commands.size());
+
+        registry.sync();
+
+        assertTrue(registry.isAlive(entity));
+        assertEquals(new Health(1), registry.getComponent(entity, Health.class));
+        assertTrue(commands.isEmpty());
+    }
+
+    @Test
+    void laterCommandsOfEntityWin() {
+        int entity = registry.createEntity();
+        Health last = new Health(3);
+        commands.addComponent(entity, new Health(1));
+        commands.removeComponent(entity, Health.class);
+        commands.addComponent(entity, new Speed(1));
+        commands.addComponent(entity, last);
+        commands.removeComponent(entity, Speed.class);
+
+        registry.sync();
+
+        assertSame(last, registry.getComponent(entity, Health.class));
+        assertNull(registry.getComponent(entity, Speed.class));
+    }
+
+    @Test
+    void destroyBetweenCommandsAppliesInRecordingOrder() {
+        int entity = registry.createEntity();
+        commands.addComponent(entity, new Health(1));
+        commands.destroy(entity);
+        commands.addComponent(entity, new Speed(1));
+
+        registry.sync();
+
+        assertFalse(registry.isAlive(entity));
+        assertNull(registry.getComponent(entity, Speed.class));
+    }
+
+    @Test
+    void componentsAreAddedInRecordingOrderAcrossEntities() {
+        List<String> added = new ArrayList<>();
+        registry.onAdd(Health.class, (entityId, health) -> added.add("health " + health.value()));
+        registry.onAdd(Speed.class, (entityId, speed) -> added.add("speed " + speed.value()));
+        int first = commands.spawn();
+        int second = commands.spawn();
+        commands.addComponent(second, new Health(2));
+        commands.addComponent(first, new Health(1));
+        commands.addComponent(first, new Speed(1));
+        commands.addComponent(second, new Speed(2));
+
+        registry.sync();
+
+        assertEquals(List.of("health 2", "health 1", "speed 1", "speed 2"), added);
+    }
+
+    @Test
+    void spawnedIdsAreUsableBeforePlayback() {
+        int parent = commands.spawn();
+        int child = commands.spawn();
+        commands.addComponent(child, new Owner(parent));
+
+        registry.sync();
+
+        assertTrue(registry.isAlive(parent));
+        assertEquals(parent, registry.getComponent(child, Owner.class).entity());
+    }
+
+    private record Health(int value) implements Component {
+    }
+
+    private record Speed(int value) implements Component {
+    }
+
+    private record Owner(int entity) implements Component {
+    }
+}
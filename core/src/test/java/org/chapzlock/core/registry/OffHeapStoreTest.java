@@ -0,0 +1,114 @@
+package org.chapzlock.core.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.foreign.ValueLayout;
+
+import org.chapzlock.core.application.Component;
+import org.chapzlock.core.application.Tag;
+import org.chapzlock.core.entity.EntityIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OffHeapStoreTest {
+    private ComponentRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ComponentRegistry();
+    }
+
+    @Test
+    void swapRemoveMovesLastSlotAndItsData() {
+        OffHeapStore store = registry.registerOffHeapStore(Particle.class, ValueLayout.JAVA_INT);
+        int[] entities = new int[4];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = registry.createEntity();
+            registry.addComponent(entities[i], new Particle());
+            write(store, entities[i], 10 + i);
+        }
+
+        registry.removeComponent(entities[1], Particle.class);
+
+        assertEquals(3, store.size());
+        assertEquals(-1, store.slot(entities[1]));
+        assertEquals(1, store.slot(entities[3]));
+        assertEquals(entities[3], store.entity(1));
+        assertEquals(10, read(store, entities[0]));
+        assertEquals(12, read(store, entities[2]));
+        assertEquals(13, read(store, entities[3]));
+
+        registry.destroyEntity(entities[3]);
+
+        assertEquals(2, store.size());
+        assertEquals(10, read(store, entities[0]));
+        assertEquals(12, read(store, entities[2]));
+    }
+
+    @Test
+    void registrationGivesExistingTaggedEntitiesZeroedSlots() {
+        int tagged = registry.createEntity();
+        registry.addComponent(tagged, new Particle());
+        registry.addComponent(tagged, new Marker(1));
+        int other = registry.createEntity();
+        registry.addComponent(other, new Marker(2));
+        int taggedToo = registry.createEntity();
+        registry.addComponent(taggedToo, new Particle());
+
+        OffHeapStore store = registry.registerOffHeapStore(Particle.class, ValueLayout.JAVA_INT);
+
+        assertEquals(2, store.size());
+        assertEquals(-1, store.slot(other));
+        assertEquals(0, read(store, tagged));
+        assertEquals(0, read(store, taggedToo));
+        assertEquals(tagged, store.entity(store.slot(tagged)));
+        assertEquals(taggedToo, store.entity(store.slot(taggedToo)));
+    }
+
+    @Test
+    void staleEntityIdHasNoSlot() {
+        OffHeapStore store = registry.registerOffHeapStore(Particle.class, ValueLayout.JAVA_INT);
+        int destroyed = registry.createEntity();
+        registry.addComponent(destroyed, new Particle());
+        write(store, destroyed, 7);
+        registry.destroyEntity(destroyed);
+
+        int reused = registry.createEntity();
+        registry.addComponent(reused, new Particle());
+
+        assertEquals(EntityIdGenerator.index(destroyed), EntityIdGenerator.index(reused));
+        assertEquals(-1, store.slot(destroyed));
+        assertEquals(0, read(store, reused));
+    }
+
+    @Test
+    void closeFreesStoresAndKeepsTags() {
+        int entity = registry.createEntity();
+        registry.addComponent(entity, new Particle());
+        OffHeapStore store = registry.registerOffHeapStore(Particle.class, ValueLayout.JAVA_INT);
+        assertTrue(store.segment().scope().isAlive());
+
+        registry.close();
+
+        assertFalse(store.segment().scope().isAlive());
+        assertNull(registry.offHeapStore(Particle.class));
+        assertEquals(new Particle(), registry.getComponent(entity, Particle.class));
+    }
+
+    private static void write(OffHeapStore store, int entityId, int value) {
+        store.segment().set(ValueLayout.JAVA_INT, store.offset(store.slot(entityId)), value);
+    }
+
+    private static int read(OffHeapStore store, int entityId) {
+        return store.segment().get(ValueLayout.JAVA_INT, store.offset(store.slot(entityId)));
+    }
+
+    private record Particle() implements Tag {
+    }
+
+    private record Marker(int value) implements Component {
+    }
+}
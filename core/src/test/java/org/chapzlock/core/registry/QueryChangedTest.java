@@ -0,0 +1,107 @@
+package org.chapzlock.core.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.chapzlock.core.application.Component;
+import org.chapzlock.core.component.Transform;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class QueryChangedTest {
+    private ComponentRegistry registry;
+    private Query query;
+    private Changed<Health> changed;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ComponentRegistry();
+        query = registry.query(Health.class);
+        changed = Changed.of(Health.class);
+    }
+
+    @Test
+    void addedComponentIsSeenOnce() {
+        int entity = registry.createEntity();
+        registry.addComponent(entity, new Health(1));
+
+        assertEquals(List.of(entity), changedEntities(query, changed));
+        assertEquals(List.of(), changedEntities(query, changed));
+    }
+
+    @Test
+    void markedComponentIsSeen() {
+        int first = registry.createEntity();
+        int second = registry.createEntity();
+        registry.addComponent(first, new Health(1));
+        registry.addComponent(second, new Health(2));
+        changedEntities(query, changed);
+
+        registry.markChanged(second, Health.class);
+
+        assertEquals(List.of(second), changedEntities(query, changed));
+        assertEquals(List.of(), changedEntities(query, changed));
+    }
+
+    @Test
+    void transformModificationIsSeenWithoutMarking() {
+        Query transforms = registry.query(Transform.class);
+        Changed<Transform> moved = Changed.of(Transform.class);
+        int first = registry.createEntity();
+        int second = registry.createEntity();
+        registry.addComponent(first, new Transform());
+        registry.addComponent(second, new Transform());
+        changedEntities(transforms, moved);
+
+        registry.getComponent(first, Transform.class).setPosition(1, 2, 3);
+
+        assertEquals(List.of(first), changedEntities(transforms, moved));
+        assertEquals(List.of(), changedEntities(transforms, moved));
+    }
+
+    @Test
+    void changesMadeDuringPassAreSeenOnNextPass() {
+        int first = registry.createEntity();
+        int second = registry.createEntity();
+        registry.addComponent(first, new Health(1));
+        registry.addComponent(second, new Health(2));
+
+        List<Integer> seen = new ArrayList<>();
+        query.each(changed, (entityId, health) -> {
+            seen.add(entityId);
+            registry.markChanged(first, Health.class);
+        });
+
+        assertEquals(List.of(first, second), seen);
+        assertEquals(List.of(first), changedEntities(query, changed));
+        assertEquals(List.of(), changedEntities(query, changed));
+    }
+
+    @Test
+    void filtersTrackChangesIndependently() {
+        Changed<Health> other = Changed.of(Health.class);
+        int first = registry.createEntity();
+        int second = registry.createEntity();
+        registry.addComponent(first, new Health(1));
+
+        assertEquals(List.of(first), changedEntities(query, changed));
+        registry.addComponent(second, new Health(2));
+
+        assertEquals(List.of(first, second), changedEntities(query, other));
+        assertEquals(List.of(second), changedEntities(query, changed));
+        registry.markChanged(first, Health.class);
+        assertEquals(List.of(first), changedEntities(query, changed));
+        assertEquals(List.of(first), changedEntities(query, other));
+    }
+
+    private static <T extends Component> List<Integer> changedEntities(Query query, Changed<T> changed) {
+        List<Integer> entities = new ArrayList<>();
+        query.each(changed, (entityId, component) -> entities.add(entityId));
+        return entities;
+    }
+
+    private record Health(int value) implements Component {
+    }
+}
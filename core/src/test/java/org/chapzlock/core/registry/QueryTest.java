@@ -0,0 +1,116 @@
+package org.chapzlock.core.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.chapzlock.core.application.Component;
+import org.chapzlock.core.application.Tag;
+import org.chapzlock.core.component.Parent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class QueryTest {
+    private ComponentRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ComponentRegistry();
+    }
+
+    @Test
+    void tagsAreHandedOutForEveryRowAfterArchetypeGrew() {
+        int first = registry.createEntity();
+        registry.addComponent(first, new Health(0));
+        Query query = registry.query(Health.class, Enemy.class);
+        Enemy enemy = new Enemy();
+        registry.addComponent(first, enemy);
+        for (int i = 1; i < 1000; i++) {
+            int entity = registry.createEntity();
+            registry.addComponent(entity, new Health(i));
+            registry.addComponent(entity, new Enemy());
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        query.setMinChunkSize(16);
+        query.parallelEach(Health.class, Enemy.class, (entityId, health, tag) -> {
+            assertSame(enemy, tag);
+            count.incrementAndGet();
+        });
+        assertEquals(1000, count.get());
+
+        int[] sequential = new int[1];
+        query.each(Enemy.class, (entityId, tag) -> {
+            assertSame(enemy, tag);
+            sequential[0]++;
+        });
+        assertEquals(1000, sequential[0]);
+    }
+
+    @Test
+    void tagsAreHandedOutForQueriesCreatedAfterTheTag() {
+        Enemy enemy = new Enemy();
+        for (int i = 0; i < 40; i++) {
+            int entity = registry.createEntity();
+            registry.addComponent(entity, enemy);
+        }
+
+        int[] count = new int[1];
+        registry.query(Enemy.class).each(Enemy.class, (entityId, tag) -> {
+            assertSame(enemy, tag);
+            count[0]++;
+        });
+        assertEquals(40, count[0]);
+    }
+
+    @Test
+    void withoutFilterFollowsEntitiesBetweenArchetypes() {
+        Query roots = registry.query(Health.class).without(Parent.class);
+        int root = registry.createEntity();
+        registry.addComponent(root, new Health(0));
+        int child = registry.createEntity();
+        registry.addComponent(child, new Health(1));
+        assertEquals(List.of(root, child), entities(roots));
+
+        registry.addComponent(child, new Parent(root));
+        assertEquals(List.of(root), entities(roots));
+
+        registry.addComponent(child, new Enemy());
+        registry.removeComponent(child, Parent.class);
+        assertEquals(List.of(root, child), entities(roots));
+
+        registry.addComponent(root, new Parent(child));
+        registry.destroyEntity(child);
+        assertEquals(List.of(), entities(roots));
+        assertEquals(0, roots.size());
+    }
+
+    @Test
+    void withFilterFollowsEntitiesBetweenArchetypes() {
+        Query enemies = registry.query(Health.class).with(Enemy.class);
+        int entity = registry.createEntity();
+        registry.addComponent(entity, new Health(0));
+        assertEquals(List.of(), entities(enemies));
+
+        registry.addComponent(entity, new Enemy());
+        assertEquals(List.of(entity), entities(enemies));
+
+        registry.removeComponent(entity, Enemy.class);
+        assertEquals(List.of(), entities(enemies));
+    }
+
+    private static List<Integer> entities(Query query) {
+        List<Integer> entities = new ArrayList<>();
+        query.each(Health.class, (entityId, health) -> entities.add(entityId));
+        return entities;
+    }
+
+    private record Health(int value) implements Component {
+    }
+
+    private static final class Enemy implements Tag {
+    }
+}
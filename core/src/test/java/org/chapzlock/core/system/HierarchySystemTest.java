@@ -0,0 +1,108 @@
+package org.chapzlock.core.system;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.chapzlock.core.component.Transform;
+import org.chapzlock.core.registry.ComponentRegistry;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HierarchySystemTest {
+    private static final float EPSILON = 1e-5f;
+
+    private ComponentRegistry registry;
+    private HierarchySystem hierarchy;
+    private int parent;
+    private int child;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ComponentRegistry();
+        hierarchy = new HierarchySystem(registry);
+        parent = registry.createEntity();
+        registry.addComponent(parent, new Transform(new Vector3f(1, 0, 0)));
+        child = registry.createEntity();
+        registry.addComponent(child, new Transform(new Vector3f(0, 2, 0)));
+        hierarchy.setParent(child, parent);
+        registry.sync();
+    }
+
+    @Test
+    void childFollowsParent() {
+        hierarchy.onUpdate(0);
+        assertWorldPosition(child, new Vector3f(1, 2, 0));
+
+        transform(parent).setPosition(3, 0, 0);
+        hierarchy.onUpdate(0);
+        assertWorldPosition(child, new Vector3f(3, 2, 0));
+    }
+
+    @Test
+    void childFollowsRootReadOnDemandBetweenPasses() {
+        hierarchy.onUpdate(0);
+
+        // a renderer reads the moved root before the next hierarchy pass
+        transform(parent).setPosition(5, 0, 0);
+        assertWorldPosition(parent, new Vector3f(5, 0, 0));
+        assertWorldPosition(child, new Vector3f(1, 2, 0));
+
+        hierarchy.onUpdate(0);
+        assertWorldPosition(child, new Vector3f(5, 2, 0));
+    }
+
+    @Test
+    void grandChildFollowsRootReadOnDemandBetweenPasses() {
+        int grandChild = registry.createEntity();
+        registry.addComponent(grandChild, new Transform(new Vector3f(0, 0, 4)));
+        hierarchy.setParent(grandChild, child);
+        registry.sync();
+        hierarchy.onUpdate(0);
+        assertWorldPosition(grandChild, new Vector3f(1, 2, 4));
+
+        transform(parent).setPosition(-1, 0, 0);
+        transform(parent).getWorldMatrix();
+        hierarchy.onUpdate(0);
+        assertWorldPosition(grandChild, new Vector3f(-1, 2, 4));
+    }
+
+    @Test
+    void childFollowsReplacedParentTransform() {
+        hierarchy.onUpdate(0);
+
+        registry.addComponent(parent, new Transform(new Vector3f(7, 0, 0)));
+        hierarchy.onUpdate(0);
+        assertWorldPosition(child, new Vector3f(7, 2, 0));
+
+        transform(parent).setPosition(8, 0, 0);
+        hierarchy.onUpdate(0);
+        assertWorldPosition(child, new Vector3f(8, 2, 0));
+    }
+
+    @Test
+    void replacedChildTransformStaysRelativeToParent() {
+        hierarchy.onUpdate(0);
+
+        registry.addComponent(child, new Transform(new Vector3f(0, 3, 0)));
+        hierarchy.onUpdate(0);
+        assertSame(transform(parent), transform(child).getParent());
+        assertWorldPosition(child, new Vector3f(1, 3, 0));
+
+        transform(parent).setPosition(2, 0, 0);
+        hierarchy.onUpdate(0);
+        assertWorldPosition(child, new Vector3f(2, 3, 0));
+    }
+
+    private Transform transform(int entityId) {
+        return registry.getComponent(entityId, Transform.class);
+    }
+
+    private void assertWorldPosition(int entityId, Vector3fc expected) {
+        Vector3f actual = transform(entityId).getWorldMatrix().getTranslation(new Vector3f());
+        assertEquals(expected.x(), actual.x, EPSILON);
+        assertEquals(expected.y(), actual.y, EPSILON);
+        assertEquals(expected.z(), actual.z, EPSILON);
+    }
+}
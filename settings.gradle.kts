@@ -2,3 +2,4 @@ rootProject.name = "neon-racer"
 
 include("core")
 include("app")
+include("benchmarks")